@@ -0,0 +1,33 @@
+package springApp.benchmark;
+
+import springApp.dto.UserDTO;
+import springApp.entity.User;
+
+import java.time.LocalDateTime;
+
+final class BenchmarkUsers {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkUsers() {
+    }
+
+    static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setAge(20 + id % 50);
+        user.setCreated_at(CREATED_AT);
+        return user;
+    }
+
+    static UserDTO dto(int id) {
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        dto.setName("User " + id);
+        dto.setEmail("user" + id + "@example.com");
+        dto.setAge(20 + id % 50);
+        dto.setCreated_at(CREATED_AT);
+        return dto;
+    }
+}
@@ -0,0 +1,79 @@
+package springApp.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP load against a running instance, with at most {@code loadtest.concurrency} requests in
+ * flight, for comparing execution modes or settings of the service. Start the service once per
+ * configuration, on its own machine, and run for example:
+ * <pre>
+ * mvn -f benchmarks/pom.xml -Pload compile exec:java -Dloadtest.url=http://localhost:8080 \
+ *     -Dloadtest.concurrency=2000 -Dloadtest.requests=50000
+ * </pre>
+ * Throughput and latency percentiles are printed to stdout; the run fails if any request failed
+ * or answered other than 200. Client and service sharing a machine measure each other.
+ */
+public final class UserControllerLoad {
+
+    private UserControllerLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url", "http://localhost:8080");
+        URI uri = URI.create(url + System.getProperty("loadtest.path", "/users?size=50"));
+        int concurrency = Integer.getInteger("loadtest.concurrency", 1000);
+        int requests = Integer.getInteger("loadtest.requests", 20000);
+        int warmup = Integer.getInteger("loadtest.warmup", requests / 10);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        run(client, request, concurrency, warmup, new long[warmup]);
+
+        long[] latencies = new long[requests];
+        long started = System.nanoTime();
+        int errors = run(client, request, concurrency, requests, latencies);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s concurrency=%d requests=%d errors=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                uri, concurrency, requests, errors, requests / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        if (errors > 0) {
+            throw new IllegalStateException(errors + " of " + requests + " requests failed");
+        }
+    }
+
+    private static int run(HttpClient client, HttpRequest request, int concurrency, int requests, long[] latencies)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(calls).exceptionally(e -> null).join();
+        return errors.get();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.ceil(quantile * sorted.length) - 1] / 1e6;
+    }
+}
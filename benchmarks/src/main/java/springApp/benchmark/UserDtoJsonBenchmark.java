@@ -0,0 +1,65 @@
+package springApp.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import springApp.dto.UserDTO;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JSON (de)serialization of {@link UserDTO} with the settings Spring Boot applies to its
+ * ObjectMapper, for a single user and for a default-sized page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDtoJsonBenchmark {
+    private static final TypeReference<List<UserDTO>> USER_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private UserDTO user;
+    private List<UserDTO> page;
+    private byte[] userJson;
+    private byte[] pageJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        user = BenchmarkUsers.dto(1);
+        page = IntStream.rangeClosed(1, 50).mapToObj(BenchmarkUsers::dto).toList();
+        userJson = objectMapper.writeValueAsBytes(user);
+        pageJson = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws IOException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public UserDTO deserializeUser() throws IOException {
+        return objectMapper.readValue(userJson, UserDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<UserDTO> deserializePage() throws IOException {
+        return objectMapper.readValue(pageJson, USER_LIST);
+    }
+}
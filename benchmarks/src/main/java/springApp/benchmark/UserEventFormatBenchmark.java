@@ -0,0 +1,105 @@
+package springApp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.serialization.IntegerDeserializer;
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import springApp.event.UserEvent;
+import springApp.event.UserEventDeserializer;
+import springApp.event.UserEventSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary {@link UserEvent} format with the previous string format (id string key,
+ * bare email value, operation header) and with JSON of the same event. Each benchmark covers
+ * what the producer or consumer does per record: key, value and, for the string format, header.
+ * Bytes on wire for each format are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserEventFormatBenchmark {
+    private static final String TOPIC = "user-events";
+    private static final String OPERATION_HEADER = "operation";
+
+    private final StringSerializer stringSerializer = new StringSerializer();
+    private final StringDeserializer stringDeserializer = new StringDeserializer();
+    private final IntegerSerializer integerSerializer = new IntegerSerializer();
+    private final IntegerDeserializer integerDeserializer = new IntegerDeserializer();
+    private final UserEventSerializer eventSerializer = new UserEventSerializer();
+    private final UserEventDeserializer eventDeserializer = new UserEventDeserializer();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private UserEvent event;
+    private byte[] stringKey;
+    private byte[] stringValue;
+    private byte[] stringHeader;
+    private byte[] jsonValue;
+    private byte[] binaryKey;
+    private byte[] binaryValue;
+
+    @Setup
+    public void setUp() throws IOException {
+        event = new UserEvent(123456, UserEvent.Operation.UPDATE, "Test User", "test.user@example.com", 30, null,
+                Instant.ofEpochMilli(1_760_000_000_123L));
+        stringKey = stringSerializer.serialize(TOPIC, String.valueOf(event.userId()));
+        stringValue = stringSerializer.serialize(TOPIC, event.email());
+        stringHeader = stringSerializer.serialize(TOPIC, "update");
+        jsonValue = objectMapper.writeValueAsBytes(event);
+        binaryKey = integerSerializer.serialize(TOPIC, event.userId());
+        binaryValue = eventSerializer.serialize(TOPIC, event);
+
+        System.out.printf("bytes on wire: string=%d (key %d, value %d, header %d), json=%d, binary=%d%n",
+                stringKey.length + stringValue.length + OPERATION_HEADER.length() + stringHeader.length,
+                stringKey.length, stringValue.length, OPERATION_HEADER.length() + stringHeader.length,
+                binaryKey.length + jsonValue.length, binaryKey.length + binaryValue.length);
+    }
+
+    @Benchmark
+    public void encodeString(Blackhole blackhole) {
+        blackhole.consume(stringSerializer.serialize(TOPIC, String.valueOf(event.userId())));
+        blackhole.consume(stringSerializer.serialize(TOPIC, event.email()));
+        blackhole.consume(stringSerializer.serialize(TOPIC, event.operation().name().toLowerCase()));
+    }
+
+    @Benchmark
+    public void decodeString(Blackhole blackhole) {
+        blackhole.consume(Integer.parseInt(stringDeserializer.deserialize(TOPIC, stringKey)));
+        blackhole.consume(stringDeserializer.deserialize(TOPIC, stringValue));
+        blackhole.consume(stringDeserializer.deserialize(TOPIC, stringHeader));
+    }
+
+    @Benchmark
+    public void encodeJson(Blackhole blackhole) throws IOException {
+        blackhole.consume(integerSerializer.serialize(TOPIC, event.userId()));
+        blackhole.consume(objectMapper.writeValueAsBytes(event));
+    }
+
+    @Benchmark
+    public void decodeJson(Blackhole blackhole) throws IOException {
+        blackhole.consume(integerDeserializer.deserialize(TOPIC, binaryKey));
+        blackhole.consume(objectMapper.readValue(jsonValue, UserEvent.class));
+    }
+
+    @Benchmark
+    public void encodeBinary(Blackhole blackhole) {
+        blackhole.consume(integerSerializer.serialize(TOPIC, event.userId()));
+        blackhole.consume(eventSerializer.serialize(TOPIC, event));
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole blackhole) {
+        blackhole.consume(integerDeserializer.deserialize(TOPIC, binaryKey));
+        blackhole.consume(eventDeserializer.deserialize(TOPIC, binaryValue));
+    }
+}
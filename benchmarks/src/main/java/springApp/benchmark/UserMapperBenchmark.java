@@ -0,0 +1,60 @@
+package springApp.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import springApp.dto.UserDTO;
+import springApp.entity.User;
+import springApp.mapper.UserMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserMapper} per call. With {@code logLevel=INFO} the debug/trace statements are disabled,
+ * which is how production runs; {@code DEBUG} and {@code TRACE} add the cost of building events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({"INFO", "DEBUG", "TRACE"})
+    public String logLevel;
+
+    private final UserMapper userMapper = new UserMapper();
+    private User user;
+    private UserDTO dto;
+    private UserDTO update;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(UserMapper.class)).setLevel(Level.toLevel(logLevel));
+        user = BenchmarkUsers.user(1);
+        dto = BenchmarkUsers.dto(1);
+        update = new UserDTO();
+        update.setName("Updated");
+        update.setEmail("updated@example.com");
+        update.setAge(42);
+    }
+
+    @Benchmark
+    public UserDTO mapToUserDTO() {
+        return userMapper.mapToUserDTO(user);
+    }
+
+    @Benchmark
+    public User mapToUserEntity() {
+        return userMapper.mapToUserEntity(dto);
+    }
+
+    @Benchmark
+    public User updateUserFromDTO() {
+        User target = BenchmarkUsers.user(1);
+        userMapper.updateUserFromDTO(update, target);
+        return target;
+    }
+}
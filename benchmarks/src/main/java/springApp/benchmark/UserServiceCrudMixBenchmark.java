@@ -0,0 +1,147 @@
+package springApp.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import springApp.UserServiceApplication;
+import springApp.dto.UserDTO;
+import springApp.dto.UserImportResult;
+import springApp.dto.UserPage;
+import springApp.dto.UserSearchCriteria;
+import springApp.service.UserImportService;
+import springApp.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link UserService} CRUD mix against an embedded PostgreSQL, with the default settings and
+ * with the {@code perf} profile (pool sizing, pgjdbc prepared statements and batch rewriting,
+ * Hibernate batching). The {@code crud} group runs eight threads: three read pages, two look
+ * users up by email, one each creates, updates and deletes. Reads go past the user cache;
+ * deletes work through rows seeded above the ones the other threads touch.
+ * {@code importUsers} measures batched inserts on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserServiceCrudMixBenchmark {
+    private static final int TABLE_SIZE = 100_000;
+    private static final int DELETABLE = 50_000;
+    private static final int IMPORT_SIZE = 1_000;
+
+    @Param({"default", "perf"})
+    public String profile;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserImportService importService;
+    private final AtomicLong createdUsers = new AtomicLong();
+    private final AtomicInteger deletedUsers = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.profiles.active=" + profile,
+                        "--spring.kafka.admin.auto-create=false",
+                        "--users.outbox.relay.enabled=false",
+                        "--users.cache.invalidation.enabled=false",
+                        "--users.events.spool.enabled=false",
+                        "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        importService = context.getBean(UserImportService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, age) "
+                + "SELECT g, 'User ' || g, 'user' || g || '@example.com', 20 + g % 50 FROM generate_series(1, ?) g", TABLE_SIZE + DELETABLE);
+        jdbcTemplate.queryForObject("SELECT setval('users_seq', ?)", Long.class, TABLE_SIZE + DELETABLE);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    @Group("crud")
+    @GroupThreads(3)
+    public UserPage readPage() {
+        return userService.getUsersPage(ThreadLocalRandom.current().nextInt(TABLE_SIZE), null, 50);
+    }
+
+    @Benchmark
+    @Group("crud")
+    @GroupThreads(2)
+    public UserPage findByEmail() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setEmail("user" + (1 + ThreadLocalRandom.current().nextInt(TABLE_SIZE)) + "@example.com");
+        return userService.searchUsers(criteria, null, 50);
+    }
+
+    @Benchmark
+    @Group("crud")
+    @GroupThreads(1)
+    public UserDTO create() {
+        UserDTO dto = new UserDTO();
+        dto.setName("Benchmark");
+        dto.setEmail("benchmark" + createdUsers.incrementAndGet() + "@example.com");
+        dto.setAge(30);
+        return userService.createUser(dto);
+    }
+
+    @Benchmark
+    @Group("crud")
+    @GroupThreads(1)
+    public UserDTO update() {
+        UserDTO dto = new UserDTO();
+        dto.setAge(20 + ThreadLocalRandom.current().nextInt(50));
+        return userService.updateUser((long) 1 + ThreadLocalRandom.current().nextInt(TABLE_SIZE), dto);
+    }
+
+    @Benchmark
+    @Group("crud")
+    @GroupThreads(1)
+    public void delete() {
+        userService.deleteUser((long) TABLE_SIZE + deletedUsers.incrementAndGet());
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 5)
+    @Measurement(iterations = 5, time = 10)
+    public UserImportResult importUsers(ImportBatch batch) throws IOException {
+        return importService.importUsers(new ByteArrayInputStream(batch.ndjson));
+    }
+
+    @State(Scope.Thread)
+    public static class ImportBatch {
+        private static final AtomicLong imported = new AtomicLong();
+
+        byte[] ndjson;
+
+        @Setup(Level.Invocation)
+        public void next() {
+            StringBuilder rows = new StringBuilder(IMPORT_SIZE * 64);
+            for (int i = 0; i < IMPORT_SIZE; i++) {
+                rows.append("{\"name\":\"Imported\",\"email\":\"imported").append(imported.incrementAndGet())
+                        .append("@example.com\",\"age\":30}\n");
+            }
+            ndjson = rows.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
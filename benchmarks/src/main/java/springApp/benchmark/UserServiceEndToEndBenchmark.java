@@ -0,0 +1,92 @@
+package springApp.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import springApp.UserServiceApplication;
+import springApp.dto.UserDTO;
+import springApp.dto.UserPage;
+import springApp.service.UserService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserService} in the full application context against an embedded PostgreSQL: JPA,
+ * transactions, the Caffeine cache and the outbox write included. Kafka isn't needed, the outbox
+ * relay and the cache listener are switched off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceEndToEndBenchmark {
+    private static final int HOT_USERS = 100;
+
+    @Param({"1000", "100000"})
+    public int tableSize;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private final AtomicLong createdUsers = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.kafka.admin.auto-create=false",
+                        "--users.outbox.relay.enabled=false",
+                        "--users.cache.invalidation.enabled=false",
+                        "--users.events.spool.enabled=false",
+                        "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, age) "
+                + "SELECT g, 'User ' || g, 'user' || g || '@example.com', 20 + g % 50 FROM generate_series(1, ?) g", tableSize);
+        jdbcTemplate.queryForObject("SELECT setval('users_seq', ?)", Long.class, tableSize);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public UserDTO getUserByIdCached() {
+        return userService.getUserById((long) 1 + ThreadLocalRandom.current().nextInt(HOT_USERS));
+    }
+
+    @Benchmark
+    public UserPage getUsersPage() {
+        return userService.getUsersPage(ThreadLocalRandom.current().nextInt(tableSize), null, 50);
+    }
+
+    @Benchmark
+    public UserDTO createUser() {
+        UserDTO dto = new UserDTO();
+        dto.setName("Benchmark");
+        dto.setEmail("benchmark" + createdUsers.incrementAndGet() + "@example.com");
+        dto.setAge(30);
+        return userService.createUser(dto);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public List<UserDTO> getAllUsers() {
+        return userService.getAllUsers();
+    }
+}
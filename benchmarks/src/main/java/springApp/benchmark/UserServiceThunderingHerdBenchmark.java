@@ -0,0 +1,133 @@
+package springApp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import springApp.config.CacheConfig;
+import springApp.dto.UserDTO;
+import springApp.mapper.UserMapper;
+import springApp.repository.UserRepository;
+import springApp.service.UserService;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thundering herd on one popular user. All threads ask for the same id while its cache entry
+ * expires every {@code ttl}, so every expiry sends the whole herd to the repository at once. The
+ * repository stands in for the database: a query takes {@code queryMs} and needs one of
+ * {@code connections} permits, like a Hikari pool of that size. {@code coalesce=true} is
+ * {@link UserService#getUserById} as shipped, {@code false} is the same method cached without
+ * {@code sync}, where every caller that misses runs its own query.
+ * <p>
+ * Hits dominate the sample, so the herd shows in the upper percentiles (p0.999 and up) of the
+ * sample-time run. The throughput run also reports {@code queries}, repository calls per
+ * millisecond: divided by the score it is queries per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class UserServiceThunderingHerdBenchmark {
+    private static final long POPULAR_USER = 1;
+    private static final ThreadLocal<Queries> CURRENT = new ThreadLocal<>();
+
+    @Param({"true", "false"})
+    public boolean coalesce;
+
+    @Param({"2"})
+    public long queryMs;
+
+    @Param({"5ms"})
+    public String ttl;
+
+    @Param({"10"})
+    public int connections;
+
+    private AnnotationConfigApplicationContext context;
+    private UserService userService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Queries {
+        public long queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            queries = 0;
+            CURRENT.set(this);
+        }
+    }
+
+    /**
+     * {@link UserService#getUserById} cached the way it was before single-flight.
+     */
+    public static class UncoalescedUserService extends UserService {
+        public UncoalescedUserService(UserRepository userRepository) {
+            super(userRepository, new UserMapper(), null, null, null);
+        }
+
+        @Override
+        @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+        public UserDTO getUserById(Long id) {
+            return super.getUserById(id);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserDTO popular = BenchmarkUsers.dto((int) POPULAR_USER);
+        Semaphore pool = new Semaphore(connections);
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findDtoById")) {
+                        Queries queries = CURRENT.get();
+                        if (queries != null) {
+                            queries.queries++;
+                        }
+                        pool.acquire();
+                        try {
+                            Thread.sleep(queryMs);
+                        } finally {
+                            pool.release();
+                        }
+                        return Optional.of(popular);
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(popular, args);
+                    }
+                    throw new UnsupportedOperationException(method.toString());
+                });
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("benchmark", Map.of("users.cache.ttl", ttl)));
+        context.register(CacheConfig.class);
+        if (coalesce) {
+            context.registerBean(UserService.class, () -> new UserService(repository, new UserMapper(), null, null, null));
+        } else {
+            context.registerBean(UserService.class, () -> new UncoalescedUserService(repository));
+        }
+        context.refresh();
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO getPopularUser(Queries queries) {
+        return userService.getUserById(POPULAR_USER);
+    }
+}
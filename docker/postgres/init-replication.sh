@@ -0,0 +1,5 @@
+#!/bin/sh
+# Lets the db-replica service of docker-compose.yml stream WAL from this server.
+# Runs only when the db volume is initialised; for an existing volume run it by hand
+# inside the container and reload (SELECT pg_reload_conf()).
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
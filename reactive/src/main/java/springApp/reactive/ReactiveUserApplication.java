@@ -0,0 +1,14 @@
+package springApp.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import springApp.mapper.UserMapper;
+
+@SpringBootApplication
+@Import(UserMapper.class)
+public class ReactiveUserApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveUserApplication.class, args);
+    }
+}
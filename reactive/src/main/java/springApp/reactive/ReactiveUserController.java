@@ -0,0 +1,86 @@
+package springApp.reactive;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import springApp.dto.UserDTO;
+
+@RestController
+@RequestMapping("/api/users")
+@Tag(name = "Reactive User API", description = "Неблокирующий JSON API для работы с пользователями")
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @Operation(
+            summary = "Получить страницу пользователей",
+            description = "Возвращает пользователей по возрастанию id, начиная после указанного id. "
+                    + "С Accept: application/x-ndjson ответ передаётся потоком"
+    )
+    @ApiResponse(responseCode = "200", description = "Страница пользователей")
+    @GetMapping
+    public Flux<UserDTO> getUsers(
+            @Parameter(description = "id последнего пользователя предыдущей страницы")
+            @RequestParam(required = false) Integer after,
+            @Parameter(description = "Размер страницы, не больше 500")
+            @RequestParam(defaultValue = "${users.page-size:50}") int size) {
+        return userService.getUsersPage(after, size);
+    }
+
+    @Operation(summary = "Получить пользователя по id")
+    @ApiResponse(responseCode = "200", description = "Пользователь найден")
+    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+    @GetMapping("/{id}")
+    public Mono<UserDTO> getUser(@PathVariable Integer id) {
+        return userService.getUserById(id);
+    }
+
+    @Operation(summary = "Создать пользователя")
+    @ApiResponse(responseCode = "201", description = "Пользователь создан")
+    @ApiResponse(responseCode = "409", description = "Email уже занят")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<UserDTO> createUser(@RequestBody UserDTO userDTO) {
+        return userService.createUser(userDTO);
+    }
+
+    @Operation(
+            summary = "Обновить пользователя",
+            description = "Обновляет только переданные поля. Если передано поле version и запись уже изменена "
+                    + "другим запросом, возвращается 409"
+    )
+    @ApiResponse(responseCode = "200", description = "Пользователь обновлён")
+    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+    @ApiResponse(responseCode = "409", description = "Версия устарела или email уже занят")
+    @PutMapping("/{id}")
+    public Mono<UserDTO> updateUser(@PathVariable Integer id, @RequestBody UserDTO userDTO) {
+        return userService.updateUser(id, userDTO);
+    }
+
+    @Operation(summary = "Удалить пользователя")
+    @ApiResponse(responseCode = "204", description = "Пользователь удалён")
+    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteUser(@PathVariable Integer id) {
+        return userService.deleteUser(id);
+    }
+}
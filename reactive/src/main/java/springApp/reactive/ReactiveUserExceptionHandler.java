@@ -0,0 +1,38 @@
+package springApp.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Turns the errors of {@link ReactiveUserService} into problem details: a missing user is 404, a
+ * taken email or a stale version is 409.
+ */
+@RestControllerAdvice
+public class ReactiveUserExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserExceptionHandler.class);
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ProblemDetail handleStatus(ResponseStatusException e) {
+        logger.warn("Rejected reactive users API request: {}", e.getReason());
+        return ProblemDetail.forStatusAndDetail(e.getStatusCode(), e.getReason());
+    }
+
+    @ExceptionHandler({DataIntegrityViolationException.class, OptimisticLockingFailureException.class})
+    public ProblemDetail handleConflict(RuntimeException e) {
+        logger.warn("Rejected reactive users API request: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleBadInput(IllegalArgumentException e) {
+        logger.warn("Rejected reactive users API request: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -0,0 +1,174 @@
+package springApp.reactive;
+
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import springApp.dto.UserDTO;
+import springApp.entity.User;
+import springApp.event.UserEvent;
+import springApp.mapper.UserMapper;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of {@code UserService} over the same tables. Mapping goes through the
+ * shared {@link UserMapper}, and every change writes its outbox row in the same R2DBC transaction,
+ * so the main service's relay publishes exactly the events {@code UserService} would.
+ */
+@Service
+public class ReactiveUserService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserService.class);
+
+    static final int MAX_PAGE_SIZE = 500;
+    private static final String COLUMNS = "id, name, email, age, created_at, version";
+
+    private final DatabaseClient databaseClient;
+    private final UserMapper userMapper;
+
+    public ReactiveUserService(DatabaseClient databaseClient, UserMapper userMapper) {
+        this.databaseClient = databaseClient;
+        this.userMapper = userMapper;
+    }
+
+    public Flux<UserDTO> getUsersPage(Integer after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        DatabaseClient.GenericExecuteSpec spec = after == null
+                ? databaseClient.sql("SELECT " + COLUMNS + " FROM users ORDER BY id LIMIT :limit")
+                : databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE id > :after ORDER BY id LIMIT :limit")
+                        .bind("after", after);
+        return spec.bind("limit", limit)
+                .map(ReactiveUserService::toUser)
+                .all()
+                .map(userMapper::mapToUserDTO);
+    }
+
+    public Mono<UserDTO> getUserById(Integer id) {
+        return findById(id, "")
+                .switchIfEmpty(notFound(id))
+                .map(userMapper::mapToUserDTO);
+    }
+
+    @Transactional
+    public Mono<UserDTO> createUser(UserDTO userDTO) {
+        User user = userMapper.mapToUserEntity(userDTO);
+        user.setCreated_at(LocalDateTime.now().withNano(0));
+        user.setVersion(0L);
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(
+                "INSERT INTO users (name, email, age, created_at) VALUES (:name, :email, :age, :createdAt) RETURNING id");
+        insert = bind(insert, "name", user.getName(), String.class);
+        insert = bind(insert, "email", user.getEmail(), String.class);
+        insert = bind(insert, "age", user.getAge(), Integer.class);
+        return insert.bind("createdAt", user.getCreated_at())
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .flatMap(id -> {
+                    user.setId(id);
+                    return recordEvent(UserEvent.Operation.CREATE, user);
+                })
+                .then(Mono.fromCallable(() -> {
+                    logger.info("User created ID: {}", user.getId());
+                    return userMapper.mapToUserDTO(user);
+                }));
+    }
+
+    /**
+     * Like {@code UserService.updateUser}, a {@code version} in the DTO must match the row, otherwise
+     * the update fails with an {@link OptimisticLockingFailureException}. Without one the update
+     * applies to the version just read.
+     */
+    @Transactional
+    public Mono<UserDTO> updateUser(Integer id, UserDTO userDTO) {
+        return findById(id, " FOR UPDATE")
+                .switchIfEmpty(notFound(id))
+                .flatMap(user -> {
+                    long expectedVersion = userDTO.getVersion() != null ? userDTO.getVersion() : user.getVersion();
+                    userMapper.updateUserFromDTO(userDTO, user);
+                    DatabaseClient.GenericExecuteSpec update = databaseClient.sql(
+                            "UPDATE users SET name = :name, email = :email, age = :age, version = version + 1"
+                                    + " WHERE id = :id AND version = :version");
+                    update = bind(update, "name", user.getName(), String.class);
+                    update = bind(update, "email", user.getEmail(), String.class);
+                    update = bind(update, "age", user.getAge(), Integer.class);
+                    user.setVersion(expectedVersion + 1);
+                    return update.bind("id", id)
+                            .bind("version", expectedVersion)
+                            .fetch()
+                            .rowsUpdated()
+                            .flatMap(rows -> rows == 0
+                                    ? conflict(id, expectedVersion)
+                                    : recordEvent(UserEvent.Operation.UPDATE, user).thenReturn(user));
+                })
+                .map(user -> {
+                    logger.info("User updated ID: {}", id);
+                    return userMapper.mapToUserDTO(user);
+                });
+    }
+
+    @Transactional
+    public Mono<Void> deleteUser(Integer id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id RETURNING " + COLUMNS)
+                .bind("id", id)
+                .map(ReactiveUserService::toUser)
+                .one()
+                .switchIfEmpty(notFound(id))
+                .flatMap(user -> recordEvent(UserEvent.Operation.DELETE, user))
+                .doOnSuccess(ignored -> logger.info("User deleted ID: {}", id));
+    }
+
+    private Mono<User> findById(Integer id, String lock) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE id = :id" + lock)
+                .bind("id", id)
+                .map(ReactiveUserService::toUser)
+                .one();
+    }
+
+    private Mono<Void> recordEvent(UserEvent.Operation operation, User user) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(
+                "INSERT INTO user_outbox (user_id, operation, name, email, age) VALUES (:userId, :operation, :name, :email, :age)");
+        insert = bind(insert, "name", user.getName(), String.class);
+        insert = bind(insert, "email", user.getEmail(), String.class);
+        insert = bind(insert, "age", user.getAge(), Integer.class);
+        return insert.bind("userId", user.getId())
+                .bind("operation", operation.name())
+                .then();
+    }
+
+    private static <T> Mono<T> notFound(Integer id) {
+        return Mono.defer(() -> {
+            logger.error("User not found ID: {}", id);
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by id: " + id));
+        });
+    }
+
+    private static <T> Mono<T> conflict(Integer id, long expectedVersion) {
+        return Mono.defer(() -> {
+            logger.warn("Version conflict on update of user ID: {} expected version: {}", id, expectedVersion);
+            return Mono.error(new OptimisticLockingFailureException("User " + id
+                    + " was modified concurrently, expected version " + expectedVersion));
+        });
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                          Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static User toUser(Readable row) {
+        User user = new User();
+        user.setId(row.get("id", Integer.class));
+        user.setName(row.get("name", String.class));
+        user.setEmail(row.get("email", String.class));
+        user.setAge(row.get("age", Integer.class));
+        user.setCreated_at(row.get("created_at", LocalDateTime.class));
+        user.setVersion(row.get("version", Long.class));
+        return user;
+    }
+}
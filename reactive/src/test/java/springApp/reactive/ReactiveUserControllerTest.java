@@ -0,0 +1,110 @@
+package springApp.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import springApp.dto.UserDTO;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveUserController.class)
+public class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveUserService userService;
+
+    @Test
+    void shouldReturnPageOfUsers() {
+        when(userService.getUsersPage(10, 2)).thenReturn(Flux.just(user(11), user(12)));
+
+        webTestClient.get().uri("/api/users?after=10&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].id").isEqualTo(12);
+    }
+
+    @Test
+    void shouldCreateUser() {
+        when(userService.createUser(any())).thenReturn(Mono.just(user(1)));
+
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"user1\",\"email\":\"user1@test.com\",\"age\":20}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    void whenUserNotFound_ShouldReturn404() {
+        when(userService.getUserById(42)).thenReturn(
+                Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by id: 42")));
+
+        webTestClient.get().uri("/api/users/42")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("User not found by id: 42");
+    }
+
+    @Test
+    void whenEmailTaken_ShouldReturn409() {
+        when(userService.createUser(any())).thenReturn(
+                Mono.error(new DataIntegrityViolationException("duplicate key value violates unique constraint")));
+
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"user1\",\"email\":\"user1@test.com\",\"age\":20}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void whenVersionStale_ShouldReturn409() {
+        when(userService.updateUser(eq(1), any())).thenReturn(
+                Mono.error(new OptimisticLockingFailureException("User 1 was modified concurrently, expected version 0")));
+
+        webTestClient.put().uri("/api/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"user1\",\"version\":0}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("User 1 was modified concurrently, expected version 0");
+    }
+
+    @Test
+    void shouldDeleteUser() {
+        when(userService.deleteUser(1)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/api/users/1")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    private static UserDTO user(int id) {
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        dto.setName("user" + id);
+        dto.setEmail("user" + id + "@test.com");
+        dto.setAge(20);
+        return dto;
+    }
+}
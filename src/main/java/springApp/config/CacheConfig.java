@@ -0,0 +1,55 @@
+package springApp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Caching advice is ordered outside the transactional advice: cache hits do not open a
+ * transaction, and puts/evictions happen only after the transaction has committed.
+ * <p>
+ * The users cache is a {@link SingleFlightCaffeineCache}: with {@code @Cacheable(sync = true)},
+ * concurrent misses on the same user share one load, and the callers waiting for it hold no
+ * transaction or connection because the waiting happens in the cache advice.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    public static final String USERS_CACHE = "users";
+    public static final String IDEMPOTENCY_CACHE = "userIdempotencyKeys";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${users.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${users.cache.ttl:5m}") Duration ttl,
+                                     @Value("${users.idempotency.maximum-size:10000}") long idempotencyMaximumSize,
+                                     @Value("${users.idempotency.ttl:10m}") Duration idempotencyTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return USERS_CACHE.equals(name)
+                        ? new SingleFlightCaffeineCache(name, cache, isAllowNullValues())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(USERS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(IDEMPOTENCY_CACHE, Caffeine.newBuilder()
+                .maximumSize(idempotencyMaximumSize)
+                .expireAfterWrite(idempotencyTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
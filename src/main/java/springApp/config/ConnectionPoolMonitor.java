@@ -0,0 +1,88 @@
+package springApp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Raises a saturation alert for every Hikari pool (the primary and each replica) that has threads
+ * waiting for a connection, or runs at {@code users.datasource.pool-saturation.utilization} of
+ * its maximum size or more, for {@code users.datasource.pool-saturation.checks} checks in a row.
+ * Reads the {@code hikaricp.connections.*} gauges, so any pool with metrics is covered. An alert
+ * is logged once, counted in {@code datasource.pool.saturation.alerts} and held in the
+ * {@code datasource.pool.saturated} gauge until the pool recovers.
+ */
+public class ConnectionPoolMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolMonitor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final double utilization;
+    private final int checks;
+    private final Map<String, PoolState> pools = new ConcurrentHashMap<>();
+
+    public ConnectionPoolMonitor(MeterRegistry meterRegistry, double utilization, int checks) {
+        this.meterRegistry = meterRegistry;
+        this.utilization = utilization;
+        this.checks = checks;
+    }
+
+    public boolean isSaturated(String pool) {
+        PoolState state = pools.get(pool);
+        return state != null && state.saturated;
+    }
+
+    @Scheduled(fixedDelayString = "${users.datasource.pool-check-interval-ms:1000}")
+    public void check() {
+        for (Gauge max : meterRegistry.find("hikaricp.connections.max").gauges()) {
+            String pool = max.getId().getTag("pool");
+            double active = gauge("hikaricp.connections.active", pool);
+            double pending = gauge("hikaricp.connections.pending", pool);
+            boolean busy = pending > 0 || active >= max.value() * utilization;
+            PoolState state = pools.computeIfAbsent(pool, this::register);
+            state.busyChecks = busy ? state.busyChecks + 1 : 0;
+            if (!state.saturated && state.busyChecks >= checks) {
+                state.saturated = true;
+                state.alerts.increment();
+                logger.warn("Connection pool {} is saturated: {} of {} connections active, {} threads waiting",
+                        pool, (int) active, (int) max.value(), (int) pending);
+            } else if (state.saturated && !busy) {
+                state.saturated = false;
+                logger.info("Connection pool {} recovered: {} of {} connections active",
+                        pool, (int) active, (int) max.value());
+            }
+        }
+    }
+
+    private double gauge(String name, String pool) {
+        Gauge gauge = meterRegistry.find(name).tag("pool", pool).gauge();
+        return gauge == null ? 0 : gauge.value();
+    }
+
+    private PoolState register(String pool) {
+        PoolState state = new PoolState(Counter.builder("datasource.pool.saturation.alerts")
+                .description("Times the connection pool stayed saturated long enough to raise an alert")
+                .tag("pool", pool)
+                .register(meterRegistry));
+        Gauge.builder("datasource.pool.saturated", state, s -> s.saturated ? 1 : 0)
+                .description("Whether the connection pool is saturated right now")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        return state;
+    }
+
+    private static final class PoolState {
+        private final Counter alerts;
+        private int busyChecks;
+        private volatile boolean saturated;
+
+        private PoolState(Counter alerts) {
+            this.alerts = alerts;
+        }
+    }
+}
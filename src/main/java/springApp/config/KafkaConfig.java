@@ -0,0 +1,44 @@
+package springApp.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.util.unit.DataSize;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import springApp.event.UserEventSpool;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The user events topic is log-compacted: it keeps at least the latest event per user id, which
+ * is enough for a new consumer to rebuild the current state of every user. Deletes are regular
+ * events rather than tombstones, so a compacted topic still tells consumers a user is gone.
+ * <p>
+ * Raising the partition count of an existing topic moves keys to other partitions and breaks the
+ * per-user ordering of events already on the topic, so only change it for a new topic.
+ */
+@Configuration
+public class KafkaConfig {
+
+    @Bean
+    public NewTopic userEventsTopic(@Value("${spring.kafka.template.default-topic}") String topic,
+                                    @Value("${users.events.topic.partitions:1}") int partitions,
+                                    @Value("${users.events.topic.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "users.events.spool.enabled", havingValue = "true")
+    public UserEventSpool userEventSpool(@Value("${users.events.spool.dir:spool}") Path directory,
+                                         @Value("${users.events.spool.segment-size:16MB}") DataSize segmentSize,
+                                         @Value("${users.events.spool.max-size:256MB}") DataSize maxSize) throws IOException {
+        return new UserEventSpool(directory, Math.toIntExact(segmentSize.toBytes()), maxSize.toBytes());
+    }
+}
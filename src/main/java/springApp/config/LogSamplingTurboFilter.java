@@ -0,0 +1,56 @@
+package springApp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps roughly one in {@code rate} INFO lines of the configured loggers (and their children) and
+ * drops the rest before a logging event is even created. WARN and ERROR always pass. Sampling is
+ * random per call, so busy threads don't contend on a shared counter.
+ * <pre>
+ * &lt;turboFilter class="springApp.config.LogSamplingTurboFilter"&gt;
+ *     &lt;logger&gt;springApp.controller.UserController&lt;/logger&gt;
+ *     &lt;rate&gt;10&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+    private final List<String> loggers = new ArrayList<>();
+    private int rate = 1;
+
+    public void addLogger(String logger) {
+        loggers.add(logger);
+    }
+
+    public void setRate(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("rate must be at least 1: " + rate);
+        }
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isInfoEnabled() checks, which must not be sampled
+        if (rate == 1 || level != Level.INFO || format == null || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean sampled(String name) {
+        for (String logger : loggers) {
+            if (name.startsWith(logger) && (name.length() == logger.length() || name.charAt(logger.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
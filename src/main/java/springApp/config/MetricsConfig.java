@@ -0,0 +1,39 @@
+package springApp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics on top of what Actuator binds by itself (HTTP server timers, Hikari pool, Hibernate
+ * statistics, Caffeine cache, Kafka producer client metrics): SQL statements per request and
+ * connection pool saturation alerts. {@code UserService} timers come from {@code @Timed}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter counter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Bean
+    public SqlStatementMetricsFilter sqlStatementMetricsFilter(SqlStatementCounter counter, MeterRegistry meterRegistry) {
+        return new SqlStatementMetricsFilter(counter, meterRegistry);
+    }
+
+    @Bean
+    public ConnectionPoolMonitor connectionPoolMonitor(MeterRegistry meterRegistry,
+                                                       @Value("${users.datasource.pool-saturation.utilization:0.9}") double utilization,
+                                                       @Value("${users.datasource.pool-saturation.checks:5}") int checks) {
+        return new ConnectionPoolMonitor(meterRegistry, utilization, checks);
+    }
+}
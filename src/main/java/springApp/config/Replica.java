@@ -0,0 +1,40 @@
+package springApp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A read replica with its own connection pool and the result of the last lag check. A replica
+ * starts out unusable until its first check passes.
+ */
+public class Replica {
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    void update(double lagSeconds, boolean usable) {
+        this.lagSeconds = lagSeconds;
+        this.usable = usable;
+    }
+}
@@ -0,0 +1,93 @@
+package springApp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, active when {@code users.datasource.replica-urls} lists at least one
+ * replica. The primary keeps the {@code spring.datasource.*} settings; each replica gets its own
+ * read-only Hikari pool, with the primary's credentials and driver properties
+ * ({@code spring.datasource.hikari.data-source-properties.*}), named {@code replica-N} in the pool
+ * metrics. Read-only transactions ({@code @Transactional(readOnly = true)}) are routed to the
+ * replicas by {@link ReplicaRoutingDataSource}; Flyway and all writes use the primary.
+ * <p>
+ * Reads may lag writes by up to {@code users.datasource.replica-max-lag}: a list rendered right
+ * after a create can miss the new user. Single users are not read from replicas; their loads fill
+ * the users cache and run on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.datasource.replica-urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties, HikariDataSource primaryDataSource,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${users.datasource.replica-urls}") List<String> urls,
+                                               @Value("${users.datasource.replica-pool-size:10}") int poolSize,
+                                               @Value("${users.datasource.replica-max-lag:5s}") Duration maxLag) {
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            String name = "replica-" + replicas.size();
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(url.trim());
+            dataSource.setUsername(properties.determineUsername());
+            dataSource.setPassword(properties.determinePassword());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setReadOnly(true);
+            // don't fail startup on a replica that is down, the lag monitor keeps it out of rotation
+            dataSource.setInitializationFailTimeout(-1);
+            dataSource.setMetricRegistry(meterRegistry);
+            Replica replica = new Replica(name, dataSource);
+            Gauge.builder("datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Replay lag of the replica at the last check")
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.usable", replica, r -> r.isUsable() ? 1 : 0)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaLagMonitor(primaryDataSource, replicas, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        Counter fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only transactions sent to the primary because no replica was usable")
+                .register(meterRegistry);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource,
+                replicaLagMonitor.getReplicas(), fallbacks);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
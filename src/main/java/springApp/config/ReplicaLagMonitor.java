@@ -0,0 +1,148 @@
+package springApp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Measures the replay lag of every replica and takes replicas that fall behind
+ * {@code users.datasource.replica-max-lag}, or cannot be reached, out of rotation until they
+ * catch up. Owns the replica pools and closes them on shutdown.
+ * <p>
+ * Lag is measured against the primary, not the replica's own view: every check samples the
+ * primary's current WAL position, and a replica's lag is the age of the oldest sample it has not
+ * replayed yet. A replica whose WAL stream broke off therefore falls behind as soon as the primary
+ * writes, while replicas of an idle primary stay at zero however old their last transaction is.
+ * <p>
+ * The lag is unknown, and the replica kept out, while its replay position is below the oldest
+ * sample: right after startup, or after the samples it needed were dropped. Samples are only
+ * dropped once every replica has replayed them, so one that is unreachable for a while is measured
+ * correctly when it returns. A server that is not in recovery (a promoted replica, or a primary
+ * listed by mistake) is never used for reads.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint";
+    private static final String REPLAY_LSN_SQL =
+            "SELECT CASE WHEN pg_is_in_recovery() THEN pg_wal_lsn_diff(pg_last_wal_replay_lsn(), '0/0')::bigint END";
+    private static final int MAX_SAMPLES = 10_000;
+    private static final long UNREACHABLE = Long.MIN_VALUE;
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    /**
+     * {primary WAL position, time it was first seen}, oldest first, positions increasing.
+     */
+    private final Deque<long[]> samples = new ArrayDeque<>();
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.primary.setQueryTimeout(5);
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    @Scheduled(fixedDelayString = "${users.datasource.replica-lag-check-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            Long primaryLsn = primary.queryForObject(PRIMARY_LSN_SQL, Long.class);
+            record(primaryLsn, now);
+        } catch (RuntimeException e) {
+            // without the primary's position there is nothing to measure against, keep the last verdict
+            logger.warn("Cannot read the primary WAL position, replica lag not updated: {}", e.getMessage());
+            return;
+        }
+        long caughtUp = Long.MAX_VALUE;
+        for (Replica replica : replicas) {
+            boolean wasUsable = replica.isUsable();
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getDataSource());
+                jdbcTemplate.setQueryTimeout(5);
+                Long replayLsn = jdbcTemplate.queryForObject(REPLAY_LSN_SQL, Long.class);
+                double lag = lagSeconds(replayLsn, now);
+                boolean usable = lag <= maxLagSeconds;
+                replica.update(lag, usable);
+                if (replayLsn != null) {
+                    caughtUp = Math.min(caughtUp, replayLsn);
+                }
+                if (wasUsable && replayLsn == null) {
+                    logger.warn("Replica {} is not in recovery, reads go elsewhere", replica.getName());
+                } else if (wasUsable && Double.isNaN(lag)) {
+                    logger.warn("Replica {} is behind the oldest sampled primary position, reads go elsewhere until it catches up",
+                            replica.getName());
+                } else if (wasUsable && !usable) {
+                    logger.warn("Replica {} is {} s behind, reads go elsewhere until it catches up", replica.getName(), lag);
+                } else if (!wasUsable && usable) {
+                    logger.info("Replica {} is in rotation, lag: {} s", replica.getName(), lag);
+                }
+            } catch (RuntimeException e) {
+                caughtUp = UNREACHABLE;
+                replica.update(Double.NaN, false);
+                if (wasUsable) {
+                    logger.warn("Replica {} is unreachable, reads go elsewhere: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+        prune(caughtUp);
+    }
+
+    void record(long primaryLsn, long now) {
+        if (samples.isEmpty() || samples.peekLast()[0] < primaryLsn) {
+            samples.addLast(new long[]{primaryLsn, now});
+        }
+        if (samples.size() > MAX_SAMPLES) {
+            samples.removeFirst();
+        }
+    }
+
+    /**
+     * Age of the oldest primary position the replica has not replayed; NaN, never usable, for a
+     * server that is not in recovery or a position older than every sample.
+     */
+    double lagSeconds(Long replayLsn, long now) {
+        if (replayLsn == null || samples.isEmpty() || replayLsn < samples.peekFirst()[0]) {
+            return Double.NaN;
+        }
+        for (long[] sample : samples) {
+            if (sample[0] > replayLsn) {
+                return (now - sample[1]) / 1000.0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Drops the samples every replica has replayed except the newest of them, the baseline all
+     * replicas are known to have reached. Nothing is dropped while a replica is unreachable
+     * ({@code caughtUp} is {@link #UNREACHABLE}).
+     */
+    void prune(long caughtUp) {
+        while (samples.size() > 1) {
+            Iterator<long[]> oldest = samples.iterator();
+            oldest.next();
+            if (oldest.next()[0] > caughtUp) {
+                return;
+            }
+            samples.removeFirst();
+        }
+    }
+}
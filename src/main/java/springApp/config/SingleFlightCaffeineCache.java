@@ -0,0 +1,139 @@
+package springApp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caffeine cache whose {@code @Cacheable(sync = true)} loads are coalesced per key: the first
+ * caller to miss registers an in-flight future and runs the loader on its own thread, the others
+ * that miss the same key meanwhile wait on that future and share its value or exception.
+ * <p>
+ * {@link CaffeineCache} would load inside {@code ConcurrentHashMap.compute}, holding the lock of
+ * the hash bin for the whole query, so misses on unrelated keys that share the bin would wait
+ * too; an async Caffeine cache avoids that but runs the loader on the common fork-join pool.
+ * Here the in-flight map is only touched with {@code putIfAbsent} and {@code remove}.
+ * <p>
+ * A put or eviction of a key that is being loaded invalidates the load: its value is still
+ * handed to the callers already waiting, but not stored, since it may predate the change, and
+ * the next miss starts a fresh load. The check and the store run in one {@code compute} on the
+ * key, as do the puts and evictions, so they can't interleave.
+ */
+public class SingleFlightCaffeineCache extends CaffeineCache {
+    private final ConcurrentMap<Object, Load> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        Load load = new Load();
+        Load running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            return (T) await(key, running.future, valueLoader);
+        }
+        try {
+            // another load may have finished between the miss and the putIfAbsent
+            cached = get(key);
+            T value = cached != null ? (T) cached.get() : valueLoader.call();
+            if (cached == null) {
+                Object storeValue = toStoreValue(value);
+                getNativeCache().asMap().compute(key, (k, current) -> load.invalidated ? current : storeValue);
+            }
+            load.future.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.future.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            invalidateLoad(k);
+            return storeValue;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        Object[] existing = new Object[1];
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            invalidateLoad(k);
+            existing[0] = current;
+            return current != null ? current : storeValue;
+        });
+        return toValueWrapper(existing[0]);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean[] present = new boolean[1];
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            invalidateLoad(k);
+            present[0] = current != null;
+            return null;
+        });
+        return present[0];
+    }
+
+    @Override
+    public void clear() {
+        invalidateLoads();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        invalidateLoads();
+        return super.invalidate();
+    }
+
+    private void invalidateLoad(Object key) {
+        Load load = inFlight.remove(key);
+        if (load != null) {
+            load.invalidated = true;
+        }
+    }
+
+    private void invalidateLoads() {
+        inFlight.keySet().forEach(this::invalidateLoad);
+    }
+
+    private static Object await(Object key, CompletableFuture<Object> load, Callable<?> valueLoader) {
+        try {
+            return load.get();
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private static final class Load {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+}
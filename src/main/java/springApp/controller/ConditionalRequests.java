@@ -0,0 +1,41 @@
+package springApp.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import springApp.service.UserTableVersion;
+
+/**
+ * Conditional GET for the user pages. Responses may be stored but must be revalidated
+ * ({@code Cache-Control: no-cache}), so a client always asks and an unchanged page costs a 304
+ * without a query or a render.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Validates against the table version. Last-Modified has one-second precision, so it is left
+     * out while the last change is less than a second old: a second change within the same
+     * second would otherwise pass {@code If-Modified-Since}.
+     */
+    static boolean notModified(ServletWebRequest request, UserTableVersion.Version version) {
+        long lastModified = System.currentTimeMillis() - version.changedAt() >= 1000 ? version.changedAt() : -1;
+        noCache(request);
+        return request.checkNotModified(version.etag(), lastModified);
+    }
+
+    static boolean notModified(ServletWebRequest request, String etag) {
+        noCache(request);
+        return request.checkNotModified(etag);
+    }
+
+    private static void noCache(ServletWebRequest request) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+    }
+}
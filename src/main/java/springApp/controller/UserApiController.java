@@ -0,0 +1,244 @@
+package springApp.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.springdoc.core.annotations.ParameterObject;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import springApp.dto.UserDTO;
+import springApp.dto.UserImportResult;
+import springApp.dto.UserPage;
+import springApp.dto.UserSearchCriteria;
+import springApp.service.UserCopyService;
+import springApp.service.UserExportService;
+import springApp.service.UserIdempotencyService;
+import springApp.service.UserImportService;
+import springApp.service.UserService;
+import springApp.service.UserTableVersion;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/users")
+@Tag(name = "User API", description = "JSON/потоковый API для работы с пользователями")
+public class UserApiController {
+    private static final Logger logger = LoggerFactory.getLogger(UserApiController.class);
+
+    private final UserExportService exportService;
+    private final UserImportService importService;
+    private final UserCopyService copyService;
+    private final UserService userService;
+    private final UserIdempotencyService idempotencyService;
+    private final UserTableVersion tableVersion;
+
+    public UserApiController(UserExportService exportService, UserImportService importService,
+                             UserCopyService copyService, UserService userService,
+                             UserIdempotencyService idempotencyService, UserTableVersion tableVersion) {
+        this.exportService = exportService;
+        this.importService = importService;
+        this.copyService = copyService;
+        this.userService = userService;
+        this.idempotencyService = idempotencyService;
+        this.tableVersion = tableVersion;
+    }
+
+    @Operation(
+            summary = "Создать пользователя",
+            description = "Создает пользователя. Запрос с ключом идемпотентности (заголовок Idempotency-Key "
+                    + "или поле idempotencyKey) можно повторять: повтор вернет пользователя, созданного первым запросом"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Созданный пользователь"),
+            @ApiResponse(responseCode = "400", description = "Email уже занят или ключ длиннее 255 символов")
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public UserDTO createUser(
+            @Parameter(description = "Ключ идемпотентности, например UUID", example = "6f1c2a8e-0b7d-4c3e-9a51-2d9f0e7b4c10")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody UserDTO userDto) {
+        logger.info("Request for user create");
+        return idempotencyService.createUser(userDto, idempotencyKey);
+    }
+
+    @Operation(
+            summary = "Найти пользователей",
+            description = "Поиск по email (точно), началу имени, диапазону возраста и дате создания. "
+                    + "Результат упорядочен по id; следующая страница запрашивается с after = nextCursor. "
+                    + "Поддерживает If-None-Match и If-Modified-Since: если пользователи не менялись, отвечает 304"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Страница найденных пользователей"),
+            @ApiResponse(responseCode = "304", description = "Пользователи не менялись"),
+            @ApiResponse(responseCode = "400", description = "Некорректные фильтры")
+    })
+    @GetMapping("/search")
+    public UserPage searchUsers(
+            @ParameterObject UserSearchCriteria criteria,
+            @Parameter(description = "Курсор: показать пользователей с id больше указанного", example = "50")
+            @RequestParam(required = false) Integer after,
+            @Parameter(description = "Размер страницы", example = "50")
+            @RequestParam(defaultValue = "${users.page-size:50}") int size,
+            ServletWebRequest webRequest) {
+        logger.info("Request for users search after: {}", after);
+        if (ConditionalRequests.notModified(webRequest, tableVersion.current())) {
+            logger.debug("Users search not modified");
+            return null;
+        }
+        return userService.searchUsers(criteria, after, size);
+    }
+
+    @Operation(
+            summary = "Частично обновить пользователя",
+            description = "Обновляет только переданные поля одним запросом UPDATE. Поле version обязательно: "
+                    + "если запись уже изменена другим запросом, возвращается 409"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Обновленный пользователь с новой версией"),
+            @ApiResponse(responseCode = "400", description = "Не указана версия или нет полей для обновления"),
+            @ApiResponse(responseCode = "409", description = "Версия устарела, пользователь изменен другим запросом")
+    })
+    @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public UserDTO patchUser(
+            @Parameter(description = "ID пользователя", example = "1", required = true)
+            @PathVariable Long id,
+            @RequestBody UserDTO userDto) {
+        logger.info("Request for patching user with id: {}", id);
+        if (userDto.getVersion() == null) {
+            throw new IllegalArgumentException("version is required to update user id: " + id);
+        }
+        return userService.updateUser(id, userDto);
+    }
+
+    @Operation(
+            summary = "Выгрузить всех пользователей",
+            description = "Потоково выгружает всю таблицу пользователей в формате NDJSON или CSV, упорядоченную по id"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Выгрузка пользователей"
+    )
+    @GetMapping("/export")
+    public void exportUsers(
+            @Parameter(description = "Формат выгрузки", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+            HttpServletResponse response) throws IOException {
+        logger.info("Request for users export as {}", format);
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + format.getExtension() + "\"");
+        exportService.export(format, response.getOutputStream());
+    }
+
+    @Operation(
+            summary = "Массово создать пользователей",
+            description = "Создает пользователей из JSON-массива (или NDJSON) пачками и возвращает ошибки по строкам",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = UserDTO.class))))
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Результат создания пользователей"
+    )
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public UserImportResult importUsers(HttpServletRequest request) throws IOException {
+        logger.info("Request for users import");
+        try (InputStream body = request.getInputStream()) {
+            return importService.importUsers(body);
+        }
+    }
+
+    @Operation(
+            summary = "Массово создать пользователей из файла",
+            description = "Создает пользователей из загруженного файла с JSON-массивом (или NDJSON) и возвращает ошибки по строкам"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Результат создания пользователей"
+    )
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public UserImportResult importUsersFile(
+            @Parameter(description = "Файл с пользователями")
+            @RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Request for users import from file {}", file.getOriginalFilename());
+        try (InputStream body = file.getInputStream()) {
+            return importService.importUsers(body);
+        }
+    }
+
+    @Operation(
+            summary = "Загрузить пользователей через COPY",
+            description = "Загружает CSV с заголовком (id, name, email, age, created_at) командой PostgreSQL COPY "
+                    + "и отправляет одно итоговое событие в Kafka"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Количество загруженных строк"),
+            @ApiResponse(responseCode = "400", description = "Некорректный CSV")
+    })
+    @PostMapping(value = "/copy", consumes = "text/csv")
+    public long copyIn(HttpServletRequest request) throws IOException {
+        logger.info("Request for users COPY load");
+        try (InputStream body = request.getInputStream()) {
+            return copyService.copyIn(body);
+        }
+    }
+
+    @Operation(
+            summary = "Выгрузить пользователей через COPY",
+            description = "Выгружает таблицу пользователей в CSV командой PostgreSQL COPY"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "CSV с пользователями"
+    )
+    @GetMapping(value = "/copy", produces = "text/csv")
+    public void copyOut(HttpServletResponse response) throws IOException {
+        logger.info("Request for users COPY unload");
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"");
+        copyService.copyOut(response.getOutputStream());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleConflict(OptimisticLockingFailureException e) {
+        logger.warn("Rejected users API request: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, DataIntegrityViolationException.class})
+    public ProblemDetail handleBadInput(RuntimeException e) {
+        logger.warn("Rejected users API request: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -10,10 +10,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import springApp.dto.UserDTO;
+import springApp.dto.UserPage;
+import springApp.dto.UserSearchCriteria;
 import springApp.service.KafkaProducerService;
+import springApp.service.UserIdempotencyService;
 import springApp.service.UserService;
+import springApp.service.UserTableVersion;
+
+import java.util.UUID;
 
 
 @Controller
@@ -23,22 +30,49 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     private final UserService userService;
+    private final UserIdempotencyService idempotencyService;
+    private final UserTableVersion tableVersion;
 
-    public UserController(UserService userService, KafkaProducerService producerService) {
+    public UserController(UserService userService, UserIdempotencyService idempotencyService,
+                          UserTableVersion tableVersion, KafkaProducerService producerService) {
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
+        this.tableVersion = tableVersion;
     }
     @Operation(
-            summary = "Получить список всех существующих пользователей",
-            description = "Возвращает HTML-страницу со списком всех существующих пользователей"
-    )
-    @ApiResponse(
-            responseCode = "200",
-            description = "Страница с пользователями успешно загружена"
+            summary = "Получить список пользователей",
+            description = "Возвращает HTML-страницу со списком пользователей, разбитым на страницы по id. "
+                    + "Поддерживает If-None-Match и If-Modified-Since: если пользователи не менялись, отвечает 304"
     )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Страница с пользователями успешно загружена"),
+            @ApiResponse(responseCode = "304", description = "Пользователи не менялись")
+    })
     @GetMapping
-    public String getAllUsers(Model model) {
-        logger.info("Request for all users");
-        model.addAttribute("users", userService.getAllUsers());
+    public String getAllUsers(
+            @Parameter(description = "Курсор: показать пользователей с id больше указанного", example = "50")
+            @RequestParam(required = false) Integer after,
+
+            @Parameter(description = "Курсор: показать пользователей с id меньше указанного", example = "51")
+            @RequestParam(required = false) Integer before,
+
+            @Parameter(description = "Размер страницы", example = "50")
+            @RequestParam(defaultValue = "${users.page-size:50}") int size,
+
+            @Parameter(description = "Фильтры поиска; без фильтров показывается весь список")
+            @ModelAttribute("criteria") UserSearchCriteria criteria,
+            ServletWebRequest webRequest,
+            Model model) {
+        logger.info("Request for users page after: {} before: {}", after, before);
+        if (ConditionalRequests.notModified(webRequest, tableVersion.current())) {
+            logger.debug("Users page not modified");
+            return null;
+        }
+        UserPage page = criteria.isEmpty()
+                ? userService.getUsersPage(after, before, size)
+                : userService.searchUsers(criteria, after, size);
+        model.addAttribute("users", page.getUsers());
+        model.addAttribute("page", page);
         return "users/list";
     }
 
@@ -53,13 +87,16 @@ public class UserController {
     @GetMapping("/new")
     public String showCreateForm(Model model) {
         logger.info("Request for user create form");
-        model.addAttribute("userDTO", new UserDTO());
+        UserDTO userDTO = new UserDTO();
+        userDTO.setIdempotencyKey(UUID.randomUUID().toString());
+        model.addAttribute("userDTO", userDTO);
         return "users/create";
     }
 
     @Operation(
             summary = "Создать нового пользователя",
-            description = "Создает нового пользователя. После успешного создания возвращает на список пользователей."
+            description = "Создает нового пользователя. После успешного создания возвращает на список пользователей. "
+                    + "Повтор с тем же ключом идемпотентности не создает пользователя заново"
     )
     @ApiResponses({
             @ApiResponse(
@@ -69,16 +106,19 @@ public class UserController {
     })
     @PostMapping
     public String createUser(
+            @Parameter(description = "Ключ идемпотентности; по умолчанию берется из поля формы idempotencyKey")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+
             @Parameter(description = "Данные для создания нового пользователя")
             @ModelAttribute UserDTO userDto,
             RedirectAttributes redirectAttributes) {
         logger.info("Try to create new user");
         try {
-            userService.createUser(userDto);
-            logger.info("User created with ID: " + userDto.getId());
+            UserDTO created = idempotencyService.createUser(userDto, idempotencyKey);
+            logger.info("User created with ID: {}", created.getId());
             redirectAttributes.addFlashAttribute("successMessage", "User created successfully");
         } catch (Exception e) {
-            logger.error("Error on user create: " + e.getMessage());
+            logger.error("Error on user create: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
         }
         return "redirect:/users";
@@ -86,13 +126,18 @@ public class UserController {
 
     @Operation(
             summary = "Форма для редактирования пользователя",
-            description = "Возвращает HTML-форму для редактирования данных пользователя"
+            description = "Возвращает HTML-форму для редактирования данных пользователя. "
+                    + "Поддерживает If-None-Match: если пользователь не менялся, отвечает 304"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Форма редактирования успешно загружена"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Пользователь не менялся"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Пользователь не найден на сервере"
@@ -102,9 +147,15 @@ public class UserController {
     public String showEditForm(
             @Parameter(description = "ID пользователя", example = "1", required = true)
             @PathVariable Long id,
+            ServletWebRequest webRequest,
             Model model) {
-        logger.info("Request for showing edit form for userID: " + id);
-        model.addAttribute("userDto", userService.getUserById(id));
+        logger.info("Request for showing edit form for userID: {}", id);
+        UserDTO user = userService.getUserById(id);
+        if (ConditionalRequests.notModified(webRequest, tableVersion.etag(user))) {
+            logger.debug("Edit form of user ID: {} not modified", id);
+            return null;
+        }
+        model.addAttribute("userDto", user);
         return "users/update";
     }
 
@@ -124,13 +175,13 @@ public class UserController {
             @Parameter(description = "Обновленные данные пользователя")
             @ModelAttribute UserDTO userDto,
             RedirectAttributes redirectAttributes) {
-        logger.info("Try to update with id: " + id);
+        logger.info("Try to update with id: {}", id);
         try {
             userService.updateUser(id, userDto);
-            logger.info("Updating user with id: " + id);
+            logger.info("Updating user with id: {}", id);
             redirectAttributes.addFlashAttribute("successMessage", "User updated successfully");
         } catch (Exception e) {
-            logger.error("Error on user update, userid: " + id + " Error: " + e.getMessage());
+            logger.error("Error on user update, userid: {} Error: {}", id, e.getMessage());
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
         }
         return "redirect:/users";
@@ -145,14 +196,13 @@ public class UserController {
     )
     @PostMapping("/{id}/delete")
     public String deleteUser(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        logger.info("Trying to delete user, userid: " + id);
+        logger.info("Trying to delete user, userid: {}", id);
         try {
-            String email = userService.getUserById(id).getEmail();
             userService.deleteUser(id);
-            logger.info("Deleting user with id: " + id);
+            logger.info("Deleting user with id: {}", id);
             redirectAttributes.addFlashAttribute("successMessage", "User deleted successfully");
         } catch (Exception e) {
-            logger.error("Error on user delete, userid: " + id + " Error: " + e.getMessage());
+            logger.error("Error on user delete, userid: {} Error: {}", id, e.getMessage());
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
         }
         return "redirect:/users";
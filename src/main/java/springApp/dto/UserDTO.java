@@ -1,5 +1,6 @@
 package springApp.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDateTime;
@@ -28,6 +29,30 @@ public class UserDTO {
     )
     private LocalDateTime created_at;
 
+    @Schema(description = "Версия записи; при обновлении должна совпадать с текущей, иначе будет конфликт",
+            example = "0"
+    )
+    private Long version;
+
+    @Schema(description = "Ключ идемпотентности создания; повтор запроса с тем же ключом вернет уже созданного пользователя",
+            accessMode = Schema.AccessMode.WRITE_ONLY,
+            example = "6f1c2a8e-0b7d-4c3e-9a51-2d9f0e7b4c10"
+    )
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String idempotencyKey;
+
+    public UserDTO() {
+    }
+
+    public UserDTO(Integer id, String name, String email, Integer age, LocalDateTime created_at, Long version) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.age = age;
+        this.created_at = created_at;
+        this.version = version;
+    }
+
     public Integer getId() {
         return id;
     }
@@ -67,4 +92,20 @@ public class UserDTO {
     public void setCreated_at(LocalDateTime created_at) {
         this.created_at = created_at;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 }
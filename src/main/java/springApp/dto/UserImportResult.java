@@ -0,0 +1,66 @@
+package springApp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Результат массового создания пользователей")
+public class UserImportResult {
+
+    @Schema(description = "Количество прочитанных строк", example = "1000")
+    private int received;
+
+    @Schema(description = "Количество созданных пользователей", example = "998")
+    private int created;
+
+    @Schema(description = "Ошибки по отдельным строкам")
+    private final List<RowError> errors = new ArrayList<>();
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void addError(int row, String message) {
+        errors.add(new RowError(row, message));
+    }
+
+    @Schema(description = "Ошибка в строке входных данных")
+    public static class RowError {
+
+        @Schema(description = "Номер строки, начиная с 1", example = "17")
+        private final int row;
+
+        @Schema(description = "Описание ошибки", example = "Email is required")
+        private final String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package springApp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница пользователей, упорядоченная по id")
+public class UserPage {
+
+    @Schema(description = "Пользователи на странице")
+    private final List<UserDTO> users;
+
+    @Schema(description = "Курсор следующей страницы (параметр after)", example = "50")
+    private final Integer nextCursor;
+
+    @Schema(description = "Курсор предыдущей страницы (параметр before)", example = "1")
+    private final Integer previousCursor;
+
+    @Schema(description = "Размер страницы", example = "50")
+    private final int size;
+
+    public UserPage(List<UserDTO> users, Integer nextCursor, Integer previousCursor, int size) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+        this.size = size;
+    }
+
+    public List<UserDTO> getUsers() {
+        return users;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public Integer getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
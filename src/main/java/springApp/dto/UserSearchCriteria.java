@@ -0,0 +1,88 @@
+package springApp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Фильтры поиска пользователей; пустые фильтры не применяются")
+public class UserSearchCriteria {
+
+    @Schema(description = "Электронная почта (точное совпадение)", example = "example@example.com")
+    private String email;
+
+    @Schema(description = "Начало имени без учета регистра", example = "Ив")
+    private String name;
+
+    @Schema(description = "Минимальный возраст включительно", example = "18")
+    private Integer minAge;
+
+    @Schema(description = "Максимальный возраст включительно", example = "30")
+    private Integer maxAge;
+
+    @Schema(description = "Создан не раньше", example = "2025-01-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @Schema(description = "Создан раньше (не включительно)", example = "2025-02-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    public boolean isEmpty() {
+        return email == null && name == null && minAge == null && maxAge == null
+                && createdFrom == null && createdTo == null;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = blankToNull(email);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = blankToNull(name);
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    // empty form fields arrive as "" and mean "no filter"
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
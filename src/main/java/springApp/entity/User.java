@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @Schema(description = "Модель пользователя в системе")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Schema(description = "Уникальный идентификатор пользователя", example = "1")
     private Integer id;
     @Column
@@ -25,6 +26,10 @@ public class User {
     @Column
     @Schema(description = "Дата создания пользователя", example = "2025-01-01 12:00:00")
     private LocalDateTime created_at;
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Версия записи для оптимистической блокировки", example = "0")
+    private Long version;
 
     @PrePersist
     protected void onCreate() {
@@ -70,4 +75,12 @@ public class User {
     public void setCreated_at(LocalDateTime created_at) {
         this.created_at = created_at;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
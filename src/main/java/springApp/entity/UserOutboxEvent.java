@@ -0,0 +1,92 @@
+package springApp.entity;
+
+import jakarta.persistence.*;
+import springApp.event.UserEvent;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "user_outbox")
+public class UserOutboxEvent {
+    /**
+     * Drawn from the sequence at insert, not from a pooled block: the relay publishes in id order,
+     * and a block held by another instance would let an older change overtake a newer one.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_outbox_seq")
+    @SequenceGenerator(name = "user_outbox_seq", sequenceName = "user_outbox_seq", allocationSize = 1)
+    private Long id;
+    @Column(name = "user_id")
+    private Integer userId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private UserEvent.Operation operation;
+    @Column
+    private String name;
+    @Column
+    private String email;
+    @Column
+    private Integer age;
+    @Column(name = "row_count")
+    private Long rowCount;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public UserOutboxEvent() {
+    }
+
+    public UserOutboxEvent(UserEvent.Operation operation, User user) {
+        this.userId = user.getId();
+        this.operation = operation;
+        this.name = user.getName();
+        this.email = user.getEmail();
+        this.age = user.getAge();
+    }
+
+    public UserOutboxEvent(long rowCount) {
+        this.operation = UserEvent.Operation.BULK_LOAD;
+        this.rowCount = rowCount;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+
+    public UserEvent toUserEvent() {
+        int key = userId == null ? UserEvent.TABLE_KEY : userId;
+        return new UserEvent(key, operation, name, email, age, rowCount, createdAt);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public UserEvent.Operation getOperation() {
+        return operation;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,56 @@
+package springApp.event;
+
+import springApp.entity.User;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A change to the users table as published on the user events topic. The Kafka key is
+ * {@link #userId()}; table-level events such as {@link Operation#BULK_LOAD} use
+ * {@link #TABLE_KEY}. Fields that an operation doesn't carry are {@code null}. The timestamp has
+ * millisecond precision, which is what the wire format keeps.
+ */
+public record UserEvent(int userId, Operation operation, String name, String email, Integer age,
+                        Long rowCount, Instant timestamp) {
+
+    public static final int TABLE_KEY = 0;
+
+    public UserEvent {
+        timestamp = timestamp.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    public enum Operation {
+        CREATE(1),
+        UPDATE(2),
+        DELETE(3),
+        BULK_LOAD(4);
+
+        private final int code;
+
+        Operation(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public static Operation fromCode(int code) {
+            for (Operation operation : values()) {
+                if (operation.code == code) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown user event operation code: " + code);
+        }
+    }
+
+    public static UserEvent of(Operation operation, User user, Instant timestamp) {
+        return new UserEvent(user.getId(), operation, user.getName(), user.getEmail(), user.getAge(), null, timestamp);
+    }
+
+    public static UserEvent bulkLoad(long rowCount, Instant timestamp) {
+        return new UserEvent(TABLE_KEY, Operation.BULK_LOAD, null, null, null, rowCount, timestamp);
+    }
+}
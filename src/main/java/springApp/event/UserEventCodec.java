@@ -0,0 +1,143 @@
+package springApp.event;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Binary encoding of {@link UserEvent}. Layout of version 1:
+ * <pre>
+ * byte    version
+ * byte    operation code
+ * byte    field mask (1 = name, 2 = email, 4 = age, 8 = row count)
+ * varint  timestamp, epoch millis
+ * varint  user id
+ * [varint length + UTF-8 name]
+ * [varint length + UTF-8 email]
+ * [varint age]
+ * [varint row count]
+ * </pre>
+ * Varints are unsigned LEB128. Later versions may only append fields behind new mask bits, so a
+ * decoder ignores mask bits and trailing bytes it doesn't know.
+ */
+public final class UserEventCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int AGE = 4;
+    private static final int ROW_COUNT = 8;
+
+    private UserEventCodec() {
+    }
+
+    public static byte[] encode(UserEvent event) {
+        byte[] name = event.name() == null ? null : event.name().getBytes(StandardCharsets.UTF_8);
+        byte[] email = event.email() == null ? null : event.email().getBytes(StandardCharsets.UTF_8);
+        int mask = 0;
+        int size = 3 + varLongSize(event.timestamp().toEpochMilli()) + varLongSize(Integer.toUnsignedLong(event.userId()));
+        if (name != null) {
+            mask |= NAME;
+            size += varLongSize(name.length) + name.length;
+        }
+        if (email != null) {
+            mask |= EMAIL;
+            size += varLongSize(email.length) + email.length;
+        }
+        if (event.age() != null) {
+            mask |= AGE;
+            size += varLongSize(Integer.toUnsignedLong(event.age()));
+        }
+        if (event.rowCount() != null) {
+            mask |= ROW_COUNT;
+            size += varLongSize(event.rowCount());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.put((byte) event.operation().getCode());
+        buffer.put((byte) mask);
+        putVarLong(buffer, event.timestamp().toEpochMilli());
+        putVarLong(buffer, Integer.toUnsignedLong(event.userId()));
+        if (name != null) {
+            putBytes(buffer, name);
+        }
+        if (email != null) {
+            putBytes(buffer, email);
+        }
+        if (event.age() != null) {
+            putVarLong(buffer, Integer.toUnsignedLong(event.age()));
+        }
+        if (event.rowCount() != null) {
+            putVarLong(buffer, event.rowCount());
+        }
+        return buffer.array();
+    }
+
+    public static UserEvent decode(byte[] data) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte version = buffer.get();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Unsupported user event version: " + version);
+            }
+            UserEvent.Operation operation = UserEvent.Operation.fromCode(buffer.get());
+            int mask = buffer.get();
+            Instant timestamp = Instant.ofEpochMilli(getVarLong(buffer));
+            int userId = (int) getVarLong(buffer);
+            String name = (mask & NAME) != 0 ? getString(buffer) : null;
+            String email = (mask & EMAIL) != 0 ? getString(buffer) : null;
+            Integer age = (mask & AGE) != 0 ? (int) getVarLong(buffer) : null;
+            Long rowCount = (mask & ROW_COUNT) != 0 ? getVarLong(buffer) : null;
+            return new UserEvent(userId, operation, name, email, age, rowCount, timestamp);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated user event of " + data.length + " bytes", e);
+        }
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in user event");
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        putVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = (int) getVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds user event size");
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,12 @@
+package springApp.event;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends a user event to the event stream. The future completes when the event is acknowledged.
+ */
+@FunctionalInterface
+public interface UserEventPublisher {
+
+    CompletableFuture<Void> send(UserEvent event);
+}
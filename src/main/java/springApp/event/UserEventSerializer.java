@@ -0,0 +1,11 @@
+package springApp.event;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+public class UserEventSerializer implements Serializer<UserEvent> {
+
+    @Override
+    public byte[] serialize(String topic, UserEvent data) {
+        return data == null ? null : UserEventCodec.encode(data);
+    }
+}
@@ -0,0 +1,377 @@
+package springApp.event;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only local spool for user events that could not be delivered. Events are stored in
+ * memory-mapped segment files of {@code segmentBytes} each; at most {@code maxBytes / segmentBytes}
+ * segments exist at a time, and {@link #append} rejects a batch that doesn't fit instead of
+ * growing past that bound.
+ * <p>
+ * A record is {@code [int length][long appendedAt millis][UserEventCodec bytes]}. The length is
+ * written last, so a record interrupted by a crash reads as the end of the segment. A zero length
+ * also marks the unused tail of a segment. Recovery zeroes the last segment from the end of its
+ * last complete record, so the body of an interrupted record can't pass for records once shorter
+ * ones are written over it, and reads never go past the write position. The read position is kept
+ * in a small checkpoint file and only moves on {@link #commit}, so events are replayed at least
+ * once and in append order.
+ * <p>
+ * Segments are unmapped as soon as they are consumed or the spool is closed, rather than when
+ * the garbage collector gets to their buffers, so a deleted segment gives its disk space back
+ * right away. Unmapping goes through {@code sun.misc.Unsafe#invokeCleaner}, the only way the JDK
+ * offers, looked up reflectively; where that is unavailable the buffers are left to the collector.
+ */
+public class UserEventSpool implements Closeable {
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int ZERO_CHUNK_BYTES = 4096;
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final FileChannel checkpoint;
+
+    private long readSegment;
+    private int readPosition;
+    private long writeSegment;
+    private int writePosition;
+    private long pending;
+
+    public UserEventSpool(Path directory, int segmentBytes, long maxBytes) throws IOException {
+        if (maxBytes < segmentBytes) {
+            throw new IllegalArgumentException("Spool size " + maxBytes + " is smaller than one segment of " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = (int) (maxBytes / segmentBytes);
+        this.checkpoint = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * Appends all events or none of them.
+     *
+     * @return {@code false} if the batch would take the spool past its size bound
+     */
+    public boolean append(List<UserEvent> events) {
+        List<byte[]> records = new ArrayList<>(events.size());
+        for (UserEvent event : events) {
+            byte[] bytes = UserEventCodec.encode(event);
+            if (HEADER_BYTES + bytes.length > segmentBytes) {
+                throw new IllegalArgumentException("User event of " + bytes.length + " bytes exceeds spool segment size");
+            }
+            records.add(bytes);
+        }
+        lock.lock();
+        try {
+            if (!fits(records)) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            for (byte[] bytes : records) {
+                if (writePosition + HEADER_BYTES + bytes.length > segmentBytes) {
+                    segments.get(writeSegment).force();
+                    writeSegment++;
+                    writePosition = 0;
+                    segments.put(writeSegment, map(writeSegment));
+                }
+                MappedByteBuffer segment = segments.get(writeSegment);
+                segment.putLong(writePosition + Integer.BYTES, now);
+                segment.put(writePosition + HEADER_BYTES, bytes);
+                segment.putInt(writePosition, bytes.length);
+                writePosition += HEADER_BYTES + bytes.length;
+            }
+            segments.get(writeSegment).force();
+            pending += records.size();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't append to user event spool " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code maxEvents} events from the last committed position without consuming them.
+     */
+    public Batch read(int maxEvents) {
+        lock.lock();
+        try {
+            List<UserEvent> events = new ArrayList<>((int) Math.min(maxEvents, pending));
+            long segment = readSegment;
+            int position = readPosition;
+            while (events.size() < maxEvents) {
+                int length = recordLength(segment, position);
+                if (length == 0) {
+                    if (segment < writeSegment) {
+                        segment++;
+                        position = 0;
+                        continue;
+                    }
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                segments.get(segment).get(position + HEADER_BYTES, bytes);
+                events.add(UserEventCodec.decode(bytes));
+                position += HEADER_BYTES + length;
+            }
+            return new Batch(events, segment, position);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks a batch returned by {@link #read} as delivered and frees segments it fully consumed.
+     */
+    public void commit(Batch batch) {
+        lock.lock();
+        try {
+            writeCheckpoint(batch.segment(), batch.position());
+            readSegment = batch.segment();
+            readPosition = batch.position();
+            pending -= batch.events().size();
+            while (segments.firstKey() < readSegment) {
+                Map.Entry<Long, MappedByteBuffer> consumed = segments.pollFirstEntry();
+                unmap(consumed.getValue());
+                Files.deleteIfExists(segmentPath(consumed.getKey()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't commit user event spool " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return pending() == 0;
+    }
+
+    public long pending() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Disk space held by segment files, which is what {@code maxBytes} bounds.
+     */
+    public long diskBytes() {
+        lock.lock();
+        try {
+            return (long) segments.size() * segmentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Instant> oldestAppendedAt() {
+        lock.lock();
+        try {
+            long segment = readSegment;
+            int position = readPosition;
+            while (recordLength(segment, position) == 0) {
+                if (segment >= writeSegment) {
+                    return Optional.empty();
+                }
+                segment++;
+                position = 0;
+            }
+            return Optional.of(Instant.ofEpochMilli(segments.get(segment).getLong(position + Integer.BYTES)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            for (MappedByteBuffer segment : segments.values()) {
+                segment.force();
+                unmap(segment);
+            }
+            segments.clear();
+            checkpoint.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(List<byte[]> records) {
+        int segmentCount = segments.size();
+        int position = writePosition;
+        for (byte[] bytes : records) {
+            if (position + HEADER_BYTES + bytes.length > segmentBytes) {
+                segmentCount++;
+                position = 0;
+            }
+            position += HEADER_BYTES + bytes.length;
+        }
+        return segmentCount <= maxSegments;
+    }
+
+    private int recordLength(long segment, int position) {
+        if (segment == writeSegment && position >= writePosition) {
+            return 0;
+        }
+        return storedRecordLength(segment, position);
+    }
+
+    /**
+     * Length stored at {@code position} regardless of the write position, for recovery to find it.
+     */
+    private int storedRecordLength(long segment, int position) {
+        if (position + HEADER_BYTES > segmentBytes) {
+            return 0;
+        }
+        int length = segments.get(segment).getInt(position);
+        return length > 0 && position + HEADER_BYTES + length <= segmentBytes ? length : 0;
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long sequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(sequence, map(sequence));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, map(0L));
+        }
+
+        ByteBuffer saved = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        if (checkpoint.read(saved, 0) == saved.capacity()) {
+            readSegment = saved.getLong(0);
+            readPosition = saved.getInt(Long.BYTES);
+        } else {
+            readSegment = segments.firstKey();
+            readPosition = 0;
+        }
+        if (!segments.containsKey(readSegment)) {
+            readSegment = segments.firstKey();
+            readPosition = 0;
+        }
+
+        writeSegment = segments.lastKey();
+        writePosition = writeSegment == readSegment ? readPosition : 0;
+        int length;
+        while ((length = storedRecordLength(writeSegment, writePosition)) > 0) {
+            writePosition += HEADER_BYTES + length;
+        }
+        zeroTail(segments.get(writeSegment), writePosition);
+        pending = countFromReadPosition();
+    }
+
+    private long countFromReadPosition() {
+        long count = 0;
+        long segment = readSegment;
+        int position = readPosition;
+        while (true) {
+            int length = recordLength(segment, position);
+            if (length == 0) {
+                if (segment >= writeSegment) {
+                    return count;
+                }
+                segment++;
+                position = 0;
+                continue;
+            }
+            position += HEADER_BYTES + length;
+            count++;
+        }
+    }
+
+    private void zeroTail(MappedByteBuffer segment, int from) {
+        byte[] zeros = new byte[ZERO_CHUNK_BYTES];
+        for (int position = from; position < segmentBytes; position += zeros.length) {
+            segment.put(position, zeros, 0, Math.min(zeros.length, segmentBytes - position));
+        }
+        segment.force();
+    }
+
+    private void writeCheckpoint(long segment, int position) throws IOException {
+        ByteBuffer saved = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        saved.putLong(segment).putInt(position).flip();
+        checkpoint.write(saved, 0);
+        checkpoint.force(false);
+    }
+
+    private MappedByteBuffer map(long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(sequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            // the buffer stays mapped until it is collected
+        }
+    }
+
+    /**
+     * {@code Unsafe#invokeCleaner} bound to the instance, or {@code null}. Looked up by name so the
+     * build doesn't depend on the internal class.
+     */
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Events read from the spool and the position just after the last of them.
+     */
+    public record Batch(List<UserEvent> events, long segment, int position) {
+
+        public boolean isEmpty() {
+            return events.isEmpty();
+        }
+    }
+}
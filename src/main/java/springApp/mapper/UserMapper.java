@@ -11,18 +11,19 @@ public class UserMapper {
     private static final Logger logger = LoggerFactory.getLogger(UserMapper.class);
 
     public UserDTO mapToUserDTO(User entity) {
-        logger.debug("Mapping user to dto ID: " + entity.getId());
+        logger.debug("Mapping user to dto ID: {}", entity.getId());
         UserDTO dto = new UserDTO();
         dto.setId(entity.getId());
         dto.setName(entity.getName());
         dto.setEmail(entity.getEmail());
         dto.setAge(entity.getAge());
         dto.setCreated_at(entity.getCreated_at());
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
     public User mapToUserEntity(UserDTO dto) {
-        logger.debug("Mapping dto to user ID: " + dto.getId());
+        logger.debug("Mapping dto to user ID: {}", dto.getId());
         User user = new User();
         user.setName(dto.getName());
         user.setEmail(dto.getEmail());
@@ -31,17 +32,17 @@ public class UserMapper {
     }
 
     public void updateUserFromDTO(UserDTO dto, User user) {
-        logger.debug("Updating user from dto ID: " + user.getId());
+        logger.debug("Updating user from dto ID: {}", user.getId());
         if (dto.getName() != null) {
-            logger.trace("Update name from " + user.getName() + " to " + dto.getName());
+            logger.trace("Update name from {} to {}", user.getName(), dto.getName());
             user.setName(dto.getName());
         }
         if (dto.getEmail() != null) {
-            logger.trace("Update email from " + user.getEmail() + " to " + dto.getEmail());
+            logger.trace("Update email from {} to {}", user.getEmail(), dto.getEmail());
             user.setEmail(dto.getEmail());
         }
         if (dto.getAge() != null) {
-            logger.trace("Update age from " + user.getAge() + " to " + dto.getAge());
+            logger.trace("Update age from {} to {}", user.getAge(), dto.getAge());
             user.setAge(dto.getAge());
         }
     }
@@ -0,0 +1,43 @@
+package springApp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public class UserIdempotencyKeyRepository {
+    private static final String CLAIM = "INSERT INTO user_idempotency_keys (idempotency_key) VALUES (?) ON CONFLICT DO NOTHING";
+    private static final String COMPLETE = "UPDATE user_idempotency_keys SET user_id = ? WHERE idempotency_key = ?";
+    private static final String FIND_USER_ID = "SELECT user_id FROM user_idempotency_keys WHERE idempotency_key = ?";
+    private static final String DELETE_CREATED_BEFORE = "DELETE FROM user_idempotency_keys WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserIdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the key unless it is already there. If another transaction has claimed the same key
+     * and not finished yet, this waits for it: the key is taken if that transaction commits and
+     * free again if it rolls back.
+     */
+    public boolean claim(String key) {
+        return jdbcTemplate.update(CLAIM, key) == 1;
+    }
+
+    public void complete(String key, Integer userId) {
+        jdbcTemplate.update(COMPLETE, userId, key);
+    }
+
+    public Optional<Integer> findUserId(String key) {
+        return jdbcTemplate.queryForList(FIND_USER_ID, Integer.class, key).stream().findFirst();
+    }
+
+    public int deleteCreatedBefore(Instant cutoff) {
+        return jdbcTemplate.update(DELETE_CREATED_BEFORE, Timestamp.from(cutoff));
+    }
+}
@@ -0,0 +1,27 @@
+package springApp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import springApp.entity.UserOutboxEvent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    /**
+     * Transaction-scoped advisory lock that elects a single relay across replicas, which keeps
+     * events for the same user in commit order on the topic.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRelayLock(long key);
+
+    @Query(value = "SELECT * FROM user_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<UserOutboxEvent> findNextBatch(int limit);
+
+    @Query(value = "SELECT created_at FROM user_outbox ORDER BY id LIMIT 1", nativeQuery = true)
+    Optional<Instant> findOldestCreatedAt();
+}
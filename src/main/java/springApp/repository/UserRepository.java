@@ -1,9 +1,63 @@
 package springApp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import springApp.dto.UserDTO;
 import springApp.entity.User;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>{
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    /**
+     * Read paths select straight into {@link UserDTO}: no managed entities, no dirty-checking
+     * snapshots and no entity-to-DTO copy.
+     */
+    String SELECT_DTO = "SELECT new springApp.dto.UserDTO(u.id, u.name, u.email, u.age, u.created_at, u.version) FROM User u";
+
+    @Query(SELECT_DTO + " ORDER BY u.id")
+    List<UserDTO> findAllDtos();
+
+    @Query(SELECT_DTO + " WHERE u.id = :id")
+    Optional<UserDTO> findDtoById(Long id);
+
+    @Query(SELECT_DTO + " ORDER BY u.id")
+    List<UserDTO> findDtoPage(Limit limit);
+
+    @Query(SELECT_DTO + " WHERE u.id > :id ORDER BY u.id")
+    List<UserDTO> findDtoPageAfter(Integer id, Limit limit);
+
+    @Query(SELECT_DTO + " WHERE u.id < :id ORDER BY u.id DESC")
+    List<UserDTO> findDtoPageBefore(Integer id, Limit limit);
+
+    /**
+     * Server-side cursor over the whole table. Must be consumed inside a transaction so the
+     * PostgreSQL driver honours the fetch size instead of buffering the full result set.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllByOrderByIdAsc();
+
+    boolean existsByEmail(String email);
+
+    /**
+     * All emails through a server-side cursor, for warming the email filter. Same transaction
+     * requirement as {@link #streamAllByOrderByIdAsc()}.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamAllEmails();
 }
@@ -0,0 +1,31 @@
+package springApp.repository;
+
+import springApp.dto.UserDTO;
+import springApp.dto.UserSearchCriteria;
+import springApp.entity.User;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Deletes the user in one statement and returns the row as it was, or empty if there was no
+     * such user. Bypasses the persistence context, so a managed copy of the user is not detached.
+     */
+    Optional<User> deleteByIdReturning(Long id);
+
+    /**
+     * Sets the non-null fields and bumps the version in one statement, returning the updated row.
+     * With a non-null {@code expectedVersion} the row is only updated if its version still matches.
+     * Empty means no such user or a version mismatch. Like the delete, this bypasses the
+     * persistence context.
+     */
+    Optional<User> updateReturning(Long id, Long expectedVersion, String name, String email, Integer age);
+
+    /**
+     * Users matching every non-empty filter with id greater than {@code after} (if given), ordered
+     * by id, at most {@code limit} rows. Each filter has its own index, see V7__users_search_indexes.
+     */
+    List<UserDTO> search(UserSearchCriteria criteria, Integer after, int limit);
+}
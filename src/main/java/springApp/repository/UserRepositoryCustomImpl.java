@@ -0,0 +1,116 @@
+package springApp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import springApp.dto.UserDTO;
+import springApp.dto.UserSearchCriteria;
+import springApp.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final String COLUMNS = "id, name, email, age, created_at, version";
+    private static final String RETURNING = " RETURNING " + COLUMNS;
+    private static final String DELETE_RETURNING = "DELETE FROM users WHERE id = ?" + RETURNING;
+
+    private static final RowMapper<User> USER_ROW = (rs, rowNum) -> {
+        User user = new User();
+        user.setId(rs.getInt("id"));
+        user.setName(rs.getString("name"));
+        user.setEmail(rs.getString("email"));
+        user.setAge(rs.getObject("age", Integer.class));
+        user.setCreated_at(rs.getObject("created_at", LocalDateTime.class));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    };
+
+    private static final RowMapper<UserDTO> USER_DTO_ROW = (rs, rowNum) -> new UserDTO(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getObject("age", Integer.class),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UserRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<User> deleteByIdReturning(Long id) {
+        return jdbcTemplate.query(DELETE_RETURNING, USER_ROW, id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<User> updateReturning(Long id, Long expectedVersion, String name, String email, Integer age) {
+        StringBuilder sql = new StringBuilder("UPDATE users SET ");
+        List<Object> args = new ArrayList<>(5);
+        if (name != null) {
+            sql.append("name = ?, ");
+            args.add(name);
+        }
+        if (email != null) {
+            sql.append("email = ?, ");
+            args.add(email);
+        }
+        if (age != null) {
+            sql.append("age = ?, ");
+            args.add(age);
+        }
+        sql.append("version = version + 1 WHERE id = ?");
+        args.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+            args.add(expectedVersion);
+        }
+        sql.append(RETURNING);
+        return jdbcTemplate.query(sql.toString(), USER_ROW, args.toArray()).stream().findFirst();
+    }
+
+    @Override
+    public List<UserDTO> search(UserSearchCriteria criteria, Integer after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM users WHERE TRUE");
+        List<Object> args = new ArrayList<>(8);
+        if (criteria.getEmail() != null) {
+            sql.append(" AND email = ?");
+            args.add(criteria.getEmail());
+        }
+        if (criteria.getName() != null) {
+            // lower() on both sides so case folding follows the database LC_CTYPE (ASCII-only under C)
+            sql.append(" AND lower(name) LIKE lower(?)");
+            args.add(escapeLike(criteria.getName()) + "%");
+        }
+        if (criteria.getMinAge() != null) {
+            sql.append(" AND age >= ?");
+            args.add(criteria.getMinAge());
+        }
+        if (criteria.getMaxAge() != null) {
+            sql.append(" AND age <= ?");
+            args.add(criteria.getMaxAge());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(criteria.getCreatedFrom());
+        }
+        if (criteria.getCreatedTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(criteria.getCreatedTo());
+        }
+        if (after != null) {
+            sql.append(" AND id > ?");
+            args.add(after);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), USER_DTO_ROW, args.toArray());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
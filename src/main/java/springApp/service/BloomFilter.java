@@ -0,0 +1,94 @@
+package springApp.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings: no false negatives, false positives at the rate it was sized for.
+ * Values can't be removed; rebuild the filter instead. Bits are packed into longs and set with
+ * CAS, so the filter is safe for concurrent use without locks.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLong setBits = new AtomicLong();
+
+    BloomFilter(long bits, int hashes) {
+        if (bits < 1 || hashes < 1) {
+            throw new IllegalArgumentException("bits and hashes must be positive");
+        }
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Sized for {@code expectedInsertions} values at a false-positive probability of {@code fpp}:
+     * m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hash functions.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and fpp in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void add(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            set(Math.floorMod(h1 + i * h2, bits));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long index = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive probability at the current fill: (share of set bits)^k.
+     */
+    public double expectedFpp() {
+        return Math.pow((double) setBits.get() / bits, hashes);
+    }
+
+    private void set(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                setBits.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    // FNV-1a over the chars, finished with the SplitMix64 mixer for a better bit spread
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xbf58476d1ce4e5b9L;
+        h ^= h >>> 27;
+        h *= 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -1,28 +1,200 @@
 package springApp.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import springApp.event.UserEvent;
+import springApp.event.UserEventPublisher;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link UserEvent}s to the default topic, keyed by {@link UserEvent#userId()} so the
+ * topic can be log-compacted. Callers are expected to go through the outbox
+ * ({@link UserOutboxService}); only {@link UserOutboxRelay} talks to this class directly.
+ * <p>
+ * Sends never touch the Kafka client on the caller's thread: events go into a bounded queue and a
+ * single dispatcher thread hands them to the producer in order, so a slow or unreachable broker
+ * only ever blocks the dispatcher. When the queue is full the {@link OverflowPolicy} decides
+ * whether the caller waits up to {@code users.events.producer.block-timeout-ms} or is rejected
+ * straight away. The returned future completes when the broker acknowledges the event.
+ */
 @Service
-public class KafkaProducerService {
+public class KafkaProducerService implements UserEventPublisher, SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
+
+    private static final int MAX_DRAIN = 512;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    private final KafkaTemplate<Integer, UserEvent> kafkaTemplate;
+    private final BlockingQueue<PendingEvent> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMs;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Timer deliveryLatency;
 
-    public static final String CREATE_OPERATION = "create";
-    static final String DELETE_OPERATION = "delete";
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private volatile boolean running;
+    private Thread dispatcher;
 
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<Integer, UserEvent> kafkaTemplate, MeterRegistry meterRegistry,
+                                @Value("${users.events.producer.queue-capacity:10000}") int queueCapacity,
+                                @Value("${users.events.producer.overflow-policy:block}") OverflowPolicy overflowPolicy,
+                                @Value("${users.events.producer.block-timeout-ms:100}") long blockTimeoutMs) {
         this.kafkaTemplate = kafkaTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.delivered = Counter.builder("user.events.delivered")
+                .description("User events acknowledged by the broker")
+                .register(meterRegistry);
+        this.failed = Counter.builder("user.events.failed")
+                .description("User events the producer failed to deliver")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("user.events.rejected")
+                .description("User events rejected because the send queue was full or stopped")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("user.events.delivery")
+                .description("Time from enqueue to broker acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("user.events.queue.size", queue, BlockingQueue::size)
+                .description("User events waiting for the dispatcher")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<Void> send(UserEvent event) {
+        ProducerRecord<Integer, UserEvent> record =
+                new ProducerRecord<>(kafkaTemplate.getDefaultTopic(), event.userId(), event);
+        PendingEvent pending = new PendingEvent(record, System.nanoTime());
+        if (!running || !enqueue(pending)) {
+            rejected.increment();
+            pending.future.completeExceptionally(new RejectedExecutionException(
+                    running ? "User event queue is full" : "User event producer is stopped"));
+        }
+        return pending.future;
+    }
+
+    private boolean enqueue(PendingEvent event) {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            return queue.offer(event);
+        }
+        try {
+            return queue.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void dispatch() {
+        List<PendingEvent> batch = new ArrayList<>(MAX_DRAIN);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                for (PendingEvent event : batch) {
+                    publish(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        PendingEvent left;
+        while ((left = queue.poll()) != null) {
+            rejected.increment();
+            left.future.completeExceptionally(new RejectedExecutionException("User event producer is stopped"));
+        }
+    }
+
+    private void publish(PendingEvent event) {
+        try {
+            kafkaTemplate.send(event.record).whenComplete((result, e) -> {
+                if (e == null) {
+                    delivered.increment();
+                    deliveryLatency.record(System.nanoTime() - event.enqueuedAt, TimeUnit.NANOSECONDS);
+                    event.future.complete(null);
+                } else {
+                    failed.increment();
+                    event.future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.warn("Failed to hand user event to the producer, key: {}: {}", event.record.key(), e.getMessage());
+            event.future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatch, "user-events-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
     }
 
-    public void sendUserCreate(String email) {
-       /* kafkaTemplate.send(kafkaTemplate.getDefaultTopic(),
-                CREATE_OPERATION,
-                email);*/
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            dispatcher.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        kafkaTemplate.flush();
     }
 
-    public void sendUserDelete(String email) {
-       /* kafkaTemplate.send(kafkaTemplate.getDefaultTopic(),
-                DELETE_OPERATION,
-                email);*/
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the default phase, i.e. after the scheduler that drives the outbox relay, so
+     * events already handed over are still flushed on shutdown.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    private static final class PendingEvent {
+        private final ProducerRecord<Integer, UserEvent> record;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingEvent(ProducerRecord<Integer, UserEvent> record, long enqueuedAt) {
+            this.record = record;
+            this.enqueuedAt = enqueuedAt;
+        }
     }
 }
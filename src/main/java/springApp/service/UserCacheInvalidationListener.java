@@ -0,0 +1,50 @@
+package springApp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import springApp.config.CacheConfig;
+import springApp.event.UserEvent;
+
+/**
+ * Keeps the local users cache coherent across replicas. Every instance joins its own consumer
+ * group, so each one sees every change event and evicts the affected id; the next read reloads
+ * it from the primary. Bulk loads only insert rows, so they can't make a cached user stale, but
+ * like every other change they move the {@link UserTableVersion} behind the page ETags. Emails
+ * of created and updated users go into the {@link UserEmailFilter}, so it knows about emails
+ * taken on other instances.
+ */
+@Service
+@ConditionalOnProperty(name = "users.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class UserCacheInvalidationListener {
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final Cache cache;
+    private final UserTableVersion tableVersion;
+    private final UserEmailFilter emailFilter;
+
+    public UserCacheInvalidationListener(CacheManager cacheManager, UserTableVersion tableVersion,
+                                         UserEmailFilter emailFilter) {
+        this.cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        this.tableVersion = tableVersion;
+        this.emailFilter = emailFilter;
+    }
+
+    @KafkaListener(topics = "${spring.kafka.template.default-topic}", groupId = "user-cache-${random.uuid}")
+    public void onUserEvent(UserEvent event) {
+        tableVersion.changed();
+        if (event.operation() == UserEvent.Operation.BULK_LOAD) {
+            return;
+        }
+        if (event.operation() != UserEvent.Operation.DELETE) {
+            emailFilter.add(event.email());
+        }
+        Long id = (long) event.userId();
+        cache.evict(id);
+        logger.debug("Evicted cached user ID: {}", id);
+    }
+}
@@ -0,0 +1,169 @@
+package springApp.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * High-volume load and unload of the users table through PostgreSQL COPY. Rows bypass JPA
+ * entirely, so the work runs on the connection bound to the current transaction and a single
+ * summarised event is published instead of one per row.
+ */
+@Service
+public class UserCopyService {
+    private static final Logger logger = LoggerFactory.getLogger(UserCopyService.class);
+
+    private static final Set<String> COLUMNS = Set.of("id", "name", "email", "age", "created_at");
+    private static final String COPY_OUT_SQL = "COPY (SELECT id, name, email, age, created_at FROM users ORDER BY id) "
+            + "TO STDOUT WITH (FORMAT csv, HEADER true)";
+
+    private final DataSource dataSource;
+    private final UserOutboxService outboxService;
+    private final UserEmailFilter emailFilter;
+    private final UserTableVersion tableVersion;
+    private final SQLExceptionTranslator exceptionTranslator = new SQLStateSQLExceptionTranslator();
+
+    public UserCopyService(DataSource dataSource, UserOutboxService outboxService, UserEmailFilter emailFilter,
+                           UserTableVersion tableVersion) {
+        this.dataSource = dataSource;
+        this.outboxService = outboxService;
+        this.emailFilter = emailFilter;
+        this.tableVersion = tableVersion;
+    }
+
+    /**
+     * Loads CSV with a header row naming any of {@code id, name, email, age, created_at}. Missing
+     * columns take their database defaults. When ids are supplied the id sequence is moved past
+     * the loaded range, never back below values it already handed out; running instances keep
+     * their already allocated id blocks, so explicit ids are only safe for a table that is not
+     * taking writes at the same time.
+     */
+    @Transactional
+    public long copyIn(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        List<String> columns = parseHeader(reader.readLine());
+        String sql = "COPY users (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        logger.debug("Starting {}", sql);
+        long rows = withConnection(connection -> {
+            long copied = copyManager(connection).copyIn(sql, reader);
+            if (columns.contains("id")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT setval('users_seq', "
+                            + "GREATEST((SELECT MAX(id) FROM users), (SELECT last_value FROM users_seq)))");
+                }
+            }
+            return copied;
+        });
+        outboxService.recordBulkLoad(rows);
+        emailFilter.rebuildAfterCommit();
+        tableVersion.changedAfterCommit();
+        logger.info("Copied {} users into the table", rows);
+        return rows;
+    }
+
+    /**
+     * Streams the table as CSV. If the client goes away mid-stream the remaining COPY data is
+     * drained instead of cancelled: the driver's cancel is sent out of band and can hit the next
+     * statement run on the pooled connection.
+     */
+    @Transactional(readOnly = true)
+    public long copyOut(OutputStream csv) throws IOException {
+        DrainingOutputStream out = new DrainingOutputStream(csv);
+        long rows = withConnection(connection -> copyManager(connection).copyOut(COPY_OUT_SQL, out));
+        out.rethrowFailure();
+        csv.flush();
+        logger.info("Copied {} users out of the table", rows);
+        return rows;
+    }
+
+    private List<String> parseHeader(String header) {
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("CSV header row is required");
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : header.split(",")) {
+            String name = column.trim().replace("\"", "").toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Unknown column in CSV header: " + column);
+            }
+            if (columns.contains(name)) {
+                throw new IllegalArgumentException("Duplicate column in CSV header: " + column);
+            }
+            columns.add(name);
+        }
+        return columns;
+    }
+
+    private long withConnection(CopyWork work) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return work.run(connection);
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("COPY users", null, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static CopyManager copyManager(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private static final class DrainingOutputStream extends FilterOutputStream {
+        private IOException failure;
+
+        DrainingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                out.write(b, off, len);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        void rethrowFailure() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CopyWork {
+        long run(Connection connection) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,165 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springApp.repository.UserRepository;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-process {@link BloomFilter} of the emails in the users table, so that the common
+ * case of registering a new email needs no query: a definite negative skips the database, only a
+ * possible positive is checked against it. The filter is filled by a streaming scan after
+ * startup, after bulk loads and every {@code users.email-filter.rebuild-interval-ms}; until a scan
+ * finishes every check goes to the database. In between, local creates and updates add their
+ * email, and {@link UserCacheInvalidationListener} adds the ones other instances wrote.
+ * <p>
+ * A Bloom filter can't forget an email, so deleted, changed and rolled back emails only make the
+ * filter drift towards false positives, extra queries the periodic rebuild clears out. False negatives are possible for an email another instance wrote until its event
+ * arrives, and for a create racing a rebuild; such a duplicate is rejected by the unique index on
+ * {@code users.email}, which stays the real guard.
+ */
+@Service
+public class UserEmailFilter {
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final Counter definiteNegatives;
+    private final Counter truePositives;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+
+    public UserEmailFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${users.email-filter.fpp:0.01}") double fpp) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.filter = BloomFilter.create(expectedInsertions, fpp);
+        this.definiteNegatives = checks(meterRegistry, "definite_negative");
+        this.truePositives = checks(meterRegistry, "true_positive");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        Gauge.builder("user.email.filter.expected.fpp", this, f -> f.filter.expectedFpp())
+                .description("False-positive probability of the email filter at its current fill")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.observed.fpp", this, UserEmailFilter::observedFpp)
+                .description("Share of emails not in the table that the filter still sent to the database")
+                .register(meterRegistry);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.email.filter.checks")
+                .description("Email existence checks by filter outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a user with {@code email} exists, asking {@code database} only when the filter
+     * cannot rule it out.
+     */
+    public boolean exists(String email, Predicate<String> database) {
+        boolean counted = ready;
+        if (counted && !filter.mightContain(email)) {
+            definiteNegatives.increment();
+            return false;
+        }
+        boolean exists = database.test(email);
+        if (counted) {
+            (exists ? truePositives : falsePositives).increment();
+        }
+        return exists;
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            filter.add(email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuildInBackground();
+    }
+
+    @Scheduled(fixedDelayString = "${users.email-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${users.email-filter.rebuild-interval-ms:3600000}")
+    public void rebuildPeriodically() {
+        rebuildInBackground();
+    }
+
+    /**
+     * Rebuilds once the current transaction commits, for changes that bypass {@link #add}.
+     */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildInBackground();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuildInBackground();
+            }
+        });
+    }
+
+    private void rebuildInBackground() {
+        Thread thread = new Thread(this::rebuild, "user-email-filter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Swaps in an empty filter first so concurrent creates land in the new one, then fills it
+     * from a server-side cursor over the table.
+     */
+    synchronized void rebuild() {
+        ready = false;
+        BloomFilter fresh = BloomFilter.create(expectedInsertions, fpp);
+        filter = fresh;
+        long started = System.nanoTime();
+        try {
+            long[] emails = new long[1];
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> stream = userRepository.streamAllEmails()) {
+                    stream.forEach(email -> {
+                        fresh.add(email);
+                        emails[0]++;
+                    });
+                }
+            });
+            ready = true;
+            logger.info("Email filter loaded {} emails in {} ms, expected fpp: {}",
+                    emails[0], (System.nanoTime() - started) / 1_000_000, fresh.expectedFpp());
+        } catch (RuntimeException e) {
+            logger.error("Email filter load failed, checks keep going to the database: {}", e.getMessage());
+        }
+    }
+
+    private double observedFpp() {
+        double negatives = definiteNegatives.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+}
@@ -0,0 +1,122 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import springApp.event.UserEvent;
+import springApp.event.UserEventPublisher;
+import springApp.event.UserEventSpool;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays events from the {@link UserEventSpool} in append order once the broker accepts them
+ * again. A batch is committed only after every event in it was acknowledged; a failed batch is
+ * retried from the same position with exponential backoff.
+ */
+@Service
+@ConditionalOnProperty(name = "users.events.spool.enabled", havingValue = "true")
+public class UserEventSpoolDrainer {
+    private static final Logger logger = LoggerFactory.getLogger(UserEventSpoolDrainer.class);
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final UserEventSpool spool;
+    private final UserEventPublisher publisher;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long intervalMs;
+    private final Counter replayed;
+
+    private long backoffMs;
+    private long nextAttemptAt;
+
+    public UserEventSpoolDrainer(UserEventSpool spool, UserEventPublisher publisher, MeterRegistry meterRegistry,
+                                 @Value("${users.events.spool.drain-batch-size:500}") int batchSize,
+                                 @Value("${users.events.spool.drain-interval-ms:1000}") long intervalMs,
+                                 @Value("${users.outbox.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.spool = spool;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.intervalMs = intervalMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.replayed = Counter.builder("user.events.spool.replayed")
+                .description("Spooled user events delivered to the broker")
+                .register(meterRegistry);
+        Gauge.builder("user.events.spool.size", spool, UserEventSpool::pending)
+                .description("User events waiting in the local spool")
+                .register(meterRegistry);
+        Gauge.builder("user.events.spool.disk", spool, UserEventSpool::diskBytes)
+                .description("Disk space held by spool segment files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.events.spool.age", spool, UserEventSpoolDrainer::ageSeconds)
+                .description("Age of the oldest event still waiting in the local spool")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${users.events.spool.drain-interval-ms:1000}")
+    public void drain() {
+        long now = System.currentTimeMillis();
+        if (now < nextAttemptAt || spool.isEmpty()) {
+            return;
+        }
+        try {
+            UserEventSpool.Batch batch;
+            do {
+                batch = spool.read(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                awaitAll(batch.events());
+                spool.commit(batch);
+                replayed.increment(batch.events().size());
+                logger.debug("Replayed {} spooled user events", batch.events().size());
+            } while (batch.events().size() == batchSize);
+            if (backoffMs > 0) {
+                logger.info("User event spool drained, {} events left", spool.pending());
+            }
+            backoffMs = 0;
+        } catch (RuntimeException e) {
+            backoffMs = backoffMs == 0 ? intervalMs : Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            nextAttemptAt = System.currentTimeMillis() + backoffMs;
+            logger.warn("Spool replay failed, {} events waiting, retrying in {} ms: {}",
+                    spool.pending(), backoffMs, e.getMessage());
+        }
+    }
+
+    private void awaitAll(List<UserEvent> events) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < sends.length; i++) {
+            sends[i] = publisher.send(events.get(i));
+        }
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying spooled events", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Spooled batch was not acknowledged within " + sendTimeoutMs + " ms", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Spooled batch was not acknowledged: " + e.getMessage(), e);
+        }
+    }
+
+    private static double ageSeconds(UserEventSpool spool) {
+        return spool.oldestAppendedAt()
+                .map(oldest -> Duration.between(oldest, Instant.now()).toMillis() / 1000.0)
+                .orElse(0.0);
+    }
+}
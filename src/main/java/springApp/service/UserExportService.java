@@ -0,0 +1,142 @@
+package springApp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import springApp.dto.UserDTO;
+import springApp.entity.User;
+import springApp.mapper.UserMapper;
+import springApp.repository.UserRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class UserExportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+    private static final String CSV_HEADER = "id,name,email,age,created_at";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter ndjsonWriter;
+
+    public UserExportService(UserRepository userRepository, UserMapper userMapper,
+                             EntityManager entityManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.entityManager = entityManager;
+        this.ndjsonWriter = objectMapper.writerFor(UserDTO.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writes every user to {@code out} in id order. Rows are read through a server-side cursor and
+     * detached right after mapping, so heap use does not grow with the table size.
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream out) throws IOException {
+        logger.debug("Exporting users as {}", format);
+        long count;
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            Iterator<UserDTO> rows = users.map(this::detachAndMap).iterator();
+            count = format == Format.CSV ? writeCsv(rows, out) : writeNdjson(rows, out);
+        }
+        logger.info("Exported {} users as {}", count, format);
+        return count;
+    }
+
+    private UserDTO detachAndMap(User user) {
+        UserDTO dto = userMapper.mapToUserDTO(user);
+        entityManager.detach(user);
+        return dto;
+    }
+
+    private long writeNdjson(Iterator<UserDTO> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = ndjsonWriter.writeValues(out)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                count++;
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<UserDTO> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            UserDTO user = rows.next();
+            writer.write(String.valueOf(user.getId()));
+            writer.write(',');
+            writeCsvField(writer, user.getName());
+            writer.write(',');
+            writeCsvField(writer, user.getEmail());
+            writer.write(',');
+            writeCsvField(writer, user.getAge() == null ? null : user.getAge().toString());
+            writer.write(',');
+            writeCsvField(writer, user.getCreated_at() == null ? null : user.getCreated_at().toString());
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,123 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springApp.config.CacheConfig;
+import springApp.dto.UserDTO;
+import springApp.repository.UserIdempotencyKeyRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * User creation that clients can safely retry. A request carrying an idempotency key (the
+ * {@code Idempotency-Key} header, or the {@code idempotencyKey} field of the body) creates the
+ * user at most once; repeats get the user created by the first attempt without running
+ * {@link UserService#createUser} again.
+ * <p>
+ * Recent keys are answered from the {@link CacheConfig#IDEMPOTENCY_CACHE} cache, so a retry
+ * storm costs a map lookup. Older keys, and keys first seen by another instance, are found in
+ * the {@code user_idempotency_keys} table, which also serialises concurrent first attempts. A
+ * failed attempt leaves no key behind, so a retry runs the create again. The request body of a
+ * repeat is not compared with the original.
+ */
+@Service
+public class UserIdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(UserIdempotencyService.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final UserService userService;
+    private final UserIdempotencyKeyRepository keyRepository;
+    private final Cache recentKeys;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final Counter memoryReplays;
+    private final Counter databaseReplays;
+
+    public UserIdempotencyService(UserService userService, UserIdempotencyKeyRepository keyRepository,
+                                  CacheManager cacheManager, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${users.idempotency.retention:24h}") Duration retention) {
+        this.userService = userService;
+        this.keyRepository = keyRepository;
+        this.recentKeys = cacheManager.getCache(CacheConfig.IDEMPOTENCY_CACHE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.memoryReplays = replays(meterRegistry, "memory");
+        this.databaseReplays = replays(meterRegistry, "database");
+    }
+
+    private static Counter replays(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("user.idempotency.replays")
+                .description("Repeated create requests answered with the user of the first attempt")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the user, or returns the one already created for the same key. {@code idempotencyKey}
+     * takes precedence over the key in the DTO; without either this is a plain create.
+     */
+    public UserDTO createUser(UserDTO userDTO, String idempotencyKey) {
+        String key = normalize(idempotencyKey != null ? idempotencyKey : userDTO.getIdempotencyKey());
+        if (key == null) {
+            return userService.createUser(userDTO);
+        }
+        UserDTO recent = recentKeys.get(key, UserDTO.class);
+        if (recent != null) {
+            memoryReplays.increment();
+            logger.info("Replaying create of user ID: {} from memory", recent.getId());
+            return recent;
+        }
+        // the replayed user is read in the claiming transaction, on the primary: a replica may not
+        // have the user created by another instance a moment ago
+        Attempt attempt = transactionTemplate.execute(status -> {
+            if (!keyRepository.claim(key)) {
+                Integer userId = keyRepository.findUserId(key)
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Idempotency key " + key + " has no user, retry the request"));
+                return new Attempt(userService.getUserById(userId.longValue()), true);
+            }
+            UserDTO created = userService.createUser(userDTO);
+            keyRepository.complete(key, created.getId());
+            return new Attempt(created, false);
+        });
+        if (attempt.replayed()) {
+            databaseReplays.increment();
+            logger.info("Replaying create of user ID: {} from the key table", attempt.user().getId());
+        }
+        recentKeys.put(key, attempt.user());
+        return attempt.user();
+    }
+
+    @Scheduled(fixedDelayString = "${users.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        int purged = keyRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} idempotency keys older than {}", purged, retention);
+        }
+    }
+
+    private static String normalize(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must not be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    private record Attempt(UserDTO user, boolean replayed) {
+    }
+}
@@ -0,0 +1,156 @@
+package springApp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springApp.dto.UserDTO;
+import springApp.dto.UserImportResult;
+import springApp.entity.User;
+import springApp.mapper.UserMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk creation of users. Rows are persisted in chunks of {@code users.import.batch-size}, one
+ * transaction per chunk; the persistence context is flushed and cleared after every chunk so
+ * Hibernate sends JDBC batches and does not keep imported entities around. A chunk that fails
+ * at the database is replayed row by row to pin the error to the offending rows.
+ */
+@Service
+public class UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserMapper userMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserOutboxService outboxService;
+    private final UserEmailFilter emailFilter;
+    private final UserTableVersion tableVersion;
+    private final ObjectReader userReader;
+    private final int batchSize;
+
+    public UserImportService(UserMapper userMapper, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, UserOutboxService outboxService,
+                             UserEmailFilter emailFilter, UserTableVersion tableVersion, ObjectMapper objectMapper,
+                             @Value("${users.import.batch-size:500}") int batchSize) {
+        this.userMapper = userMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.emailFilter = emailFilter;
+        this.tableVersion = tableVersion;
+        this.userReader = objectMapper.readerFor(UserDTO.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports a JSON array (or newline-delimited JSON) of users without materialising the whole
+     * document. A row that cannot be parsed stops the import; rows before it stay committed.
+     */
+    public UserImportResult importUsers(InputStream json) throws IOException {
+        UserImportResult result = new UserImportResult();
+        List<Row> chunk = new ArrayList<>(batchSize);
+        try (MappingIterator<UserDTO> rows = userReader.readValues(json)) {
+            while (true) {
+                UserDTO dto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    dto = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    result.addError(result.getReceived() + 1, "Malformed row: " + e.getOriginalMessage());
+                    break;
+                }
+                result.setReceived(result.getReceived() + 1);
+                chunk.add(new Row(result.getReceived(), dto));
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+        importChunk(chunk, result);
+        logger.info("Imported {} of {} users, {} rows rejected",
+                result.getCreated(), result.getReceived(), result.getErrors().size());
+        return result;
+    }
+
+    private void importChunk(List<Row> chunk, UserImportResult result) {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String error = validate(row.dto());
+            if (error != null) {
+                result.addError(row.number(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            Integer saved = transactionTemplate.execute(status -> persist(valid));
+            result.setCreated(result.getCreated() + saved);
+        } catch (RuntimeException e) {
+            logger.warn("Chunk of {} users failed, retrying row by row: {}", valid.size(), rootMessage(e));
+            for (Row row : valid) {
+                try {
+                    Integer saved = transactionTemplate.execute(status -> persist(List.of(row)));
+                    result.setCreated(result.getCreated() + saved);
+                } catch (RuntimeException rowError) {
+                    result.addError(row.number(), rootMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private int persist(List<Row> rows) {
+        for (Row row : rows) {
+            User user = userMapper.mapToUserEntity(row.dto());
+            entityManager.persist(user);
+            emailFilter.add(user.getEmail());
+            outboxService.recordCreate(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        tableVersion.changedAfterCommit();
+        return rows.size();
+    }
+
+    private static String validate(UserDTO dto) {
+        if (dto == null) {
+            return "Row is empty";
+        }
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (dto.getEmail() == null || dto.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        if (dto.getAge() != null && dto.getAge() < 0) {
+            return "Age must not be negative";
+        }
+        return null;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = NestedExceptionUtils.getMostSpecificCause(e);
+        return root.getMessage();
+    }
+
+    private record Row(int number, UserDTO dto) {
+    }
+}
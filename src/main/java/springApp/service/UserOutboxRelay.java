@@ -0,0 +1,179 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springApp.entity.UserOutboxEvent;
+import springApp.event.UserEvent;
+import springApp.event.UserEventSpool;
+import springApp.repository.UserOutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the user outbox to Kafka. Every {@code users.outbox.linger-ms} the relay takes up to
+ * {@code users.outbox.batch-size} events in id order, publishes them, waits for the acks and
+ * deletes them in the same transaction. Full batches are drained back to back. A failed batch is
+ * rolled back and retried with exponential backoff, so delivery is at-least-once.
+ * <p>
+ * With the {@link UserEventSpool} enabled ({@code users.events.spool.enabled}, off by default), a
+ * batch the broker doesn't acknowledge is moved to the spool instead, which keeps the outbox table
+ * small during a long broker outage. That trades away two outbox guarantees:
+ * <ul>
+ *     <li>durability: spooled events live only on this instance's disk, so losing the instance
+ *     or its volume loses them, and they stay undelivered while it is down;</li>
+ *     <li>per-user order across instances: while the spool holds events, this instance queues new
+ *     batches behind them, but once the relay lock moves to another instance it publishes later
+ *     events for the same users while the spooled ones are still waiting here.</li>
+ * </ul>
+ * Only enable it for a single relaying instance on durable storage. When the spool is full the
+ * relay falls back to retrying from the outbox.
+ */
+@Service
+@ConditionalOnProperty(name = "users.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class UserOutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(UserOutboxRelay.class);
+
+    private static final long RELAY_LOCK_KEY = 0x7573657273L;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final UserOutboxRepository outboxRepository;
+    private final KafkaProducerService producerService;
+    private final UserEventSpool spool;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long lingerMs;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Counter spooled;
+
+    private long backoffMs;
+    private long nextAttemptAt;
+
+    public UserOutboxRelay(UserOutboxRepository outboxRepository, KafkaProducerService producerService,
+                           Optional<UserEventSpool> spool, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${users.outbox.batch-size:500}") int batchSize,
+                           @Value("${users.outbox.linger-ms:50}") long lingerMs,
+                           @Value("${users.outbox.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.producerService = producerService;
+        this.spool = spool.orElse(null);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.relayed = Counter.builder("user.outbox.relayed")
+                .description("User events taken out of the outbox, published or spooled")
+                .register(meterRegistry);
+        this.failures = Counter.builder("user.outbox.failures")
+                .description("Outbox batches that failed to publish and were rolled back")
+                .register(meterRegistry);
+        this.spooled = Counter.builder("user.outbox.spooled")
+                .description("User events moved to the local spool because the broker didn't acknowledge them")
+                .register(meterRegistry);
+        Gauge.builder("user.outbox.lag", this, UserOutboxRelay::lagSeconds)
+                .description("Age of the oldest event still waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${users.outbox.linger-ms:50}")
+    public void relay() {
+        long now = System.currentTimeMillis();
+        if (now < nextAttemptAt) {
+            return;
+        }
+        try {
+            int published;
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+            backoffMs = 0;
+        } catch (RuntimeException e) {
+            failures.increment();
+            backoffMs = backoffMs == 0 ? Math.max(lingerMs, 100) : Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            nextAttemptAt = System.currentTimeMillis() + backoffMs;
+            logger.warn("Outbox relay failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            if (!outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+                return 0;
+            }
+            List<UserOutboxEvent> batch = outboxRepository.findNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            List<UserEvent> events = batch.stream().map(UserOutboxEvent::toUserEvent).toList();
+            if (spool != null && !spool.isEmpty()) {
+                spool(events);
+            } else {
+                publish(events);
+            }
+            outboxRepository.deleteAllByIdInBatch(batch.stream().map(UserOutboxEvent::getId).toList());
+            return batch.size();
+        });
+        if (published != null && published > 0) {
+            relayed.increment(published);
+            logger.debug("Relayed {} user events", published);
+        }
+        return published == null ? 0 : published;
+    }
+
+    private void publish(List<UserEvent> events) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < sends.length; i++) {
+            sends[i] = producerService.send(events.get(i));
+        }
+        try {
+            awaitAll(sends);
+        } catch (IllegalStateException e) {
+            if (spool == null) {
+                throw e;
+            }
+            logger.warn("Spooling {} user events: {}", events.size(), e.getMessage());
+            spool(events);
+        }
+    }
+
+    private void spool(List<UserEvent> events) {
+        if (!spool.append(events)) {
+            throw new IllegalStateException("User event spool is full");
+        }
+        spooled.increment(events.size());
+    }
+
+    private void awaitAll(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox batch was not acknowledged: " + e.getMessage(), e);
+        }
+    }
+
+    private double lagSeconds() {
+        return outboxRepository.findOldestCreatedAt()
+                .map(oldest -> Duration.between(oldest, Instant.now()).toMillis() / 1000.0)
+                .orElse(0.0);
+    }
+}
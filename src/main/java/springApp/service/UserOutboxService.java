@@ -0,0 +1,42 @@
+package springApp.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import springApp.entity.User;
+import springApp.entity.UserOutboxEvent;
+import springApp.event.UserEvent;
+import springApp.repository.UserOutboxRepository;
+
+/**
+ * Records user events in the outbox table. Every method must join the transaction that changes
+ * the users table, so an event exists if and only if the change was committed. Callers record
+ * after their write to the users row: the row lock then makes a later change to the same user
+ * take its outbox id only after the earlier one has committed, so id order is commit order per user.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class UserOutboxService {
+
+    private final UserOutboxRepository outboxRepository;
+
+    public UserOutboxService(UserOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    public void recordCreate(User user) {
+        outboxRepository.save(new UserOutboxEvent(UserEvent.Operation.CREATE, user));
+    }
+
+    public void recordUpdate(User user) {
+        outboxRepository.save(new UserOutboxEvent(UserEvent.Operation.UPDATE, user));
+    }
+
+    public void recordDelete(User user) {
+        outboxRepository.save(new UserOutboxEvent(UserEvent.Operation.DELETE, user));
+    }
+
+    public void recordBulkLoad(long rows) {
+        outboxRepository.save(new UserOutboxEvent(rows));
+    }
+}
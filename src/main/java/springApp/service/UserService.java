@@ -1,88 +1,190 @@
 package springApp.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import springApp.config.CacheConfig;
 import springApp.dto.UserDTO;
+import springApp.dto.UserPage;
+import springApp.dto.UserSearchCriteria;
 import springApp.entity.User;
 import springApp.mapper.UserMapper;
 import springApp.repository.UserRepository;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "user.service", histogram = true)
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    static final int MAX_PAGE_SIZE = 500;
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final KafkaProducerService producerService;
+    private final UserOutboxService outboxService;
+    private final UserEmailFilter emailFilter;
+    private final UserTableVersion tableVersion;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, KafkaProducerService producerService) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, UserOutboxService outboxService,
+                       UserEmailFilter emailFilter, UserTableVersion tableVersion) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
-        this.producerService = producerService;
+        this.outboxService = outboxService;
+        this.emailFilter = emailFilter;
+        this.tableVersion = tableVersion;
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         logger.debug("Getting the list of all users");
-        List<UserDTO> users = userRepository.findAll().stream()
-                .map(userMapper::mapToUserDTO)
-                .sorted(Comparator.comparing(UserDTO::getId))
-                .collect(Collectors.toList());
-        logger.info("Get " + users.size() + " users");
+        List<UserDTO> users = userRepository.findAllDtos();
+        logger.info("Get {} users", users.size());
         return users;
     }
 
+    /**
+     * Keyset page ordered by id. {@code after} moves forward from a cursor, {@code before} moves back;
+     * with neither the first page is returned. One extra row is fetched to know whether the
+     * page in the direction of travel has a continuation.
+     */
+    @Transactional(readOnly = true)
+    public UserPage getUsersPage(Integer after, Integer before, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        logger.debug("Getting users page after: {} before: {} size: {}", after, before, limit);
+        List<UserDTO> rows;
+        if (before != null) {
+            rows = userRepository.findDtoPageBefore(before, Limit.of(limit + 1));
+        } else if (after != null) {
+            rows = userRepository.findDtoPageAfter(after, Limit.of(limit + 1));
+        } else {
+            rows = userRepository.findDtoPage(Limit.of(limit + 1));
+        }
+        boolean hasMore = rows.size() > limit;
+        List<UserDTO> users = new ArrayList<>(hasMore ? rows.subList(0, limit) : rows);
+        if (before != null) {
+            Collections.reverse(users);
+        }
+        if (users.isEmpty()) {
+            return new UserPage(users, null, null, limit);
+        }
+        Integer firstId = users.get(0).getId();
+        Integer lastId = users.get(users.size() - 1).getId();
+        Integer next = before != null || hasMore ? lastId : null;
+        Integer previous = before != null ? (hasMore ? firstId : null) : (after != null ? firstId : null);
+        logger.info("Get page of {} users", users.size());
+        return new UserPage(users, next, previous, limit);
+    }
+
+    /**
+     * Keyset-paginated search, forward only: pass the returned next cursor as {@code after}.
+     */
+    @Transactional(readOnly = true)
+    public UserPage searchUsers(UserSearchCriteria criteria, Integer after, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        if (criteria.getMinAge() != null && criteria.getMaxAge() != null && criteria.getMinAge() > criteria.getMaxAge()) {
+            throw new IllegalArgumentException("minAge must not be greater than maxAge");
+        }
+        logger.debug("Searching users after: {} size: {}", after, limit);
+        List<UserDTO> rows = userRepository.search(criteria, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<UserDTO> users = hasMore ? rows.subList(0, limit) : rows;
+        Integer next = hasMore ? users.get(users.size() - 1).getId() : null;
+        logger.info("Found {} users", users.size());
+        return new UserPage(users, next, null, limit);
+    }
+
+    /**
+     * Concurrent calls for the same id that miss the cache share one query and its result (see
+     * {@link springApp.config.SingleFlightCaffeineCache}). Not read-only, so the load runs on the
+     * primary: a row read from a lagging replica right after an eviction would stay cached for the
+     * whole cache TTL.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id", sync = true)
     @Transactional
     public UserDTO getUserById(Long id) {
         logger.debug("Getting the user by id");
-        return userRepository.findById(id)
-                .map(userMapper::mapToUserDTO)
+        return userRepository.findDtoById(id)
                 .orElseThrow(() -> {
-                    logger.error("User not found ID:" + id);
+                    logger.error("User not found ID:{}", id);
                     return new RuntimeException("User not found by id: " + id);
                 });
     }
 
+    /**
+     * Rejects an email that is already taken. The check mostly costs no query (see
+     * {@link UserEmailFilter}); the unique index still catches a duplicate created concurrently.
+     */
+    @CachePut(cacheNames = CacheConfig.USERS_CACHE, key = "#result.id.longValue()")
     @Transactional
     public UserDTO createUser(UserDTO userDTO) {
         logger.debug("Creating new user");
-        User user = userMapper.mapToUserEntity(userDTO);
-        producerService.sendUserCreate(userDTO.getEmail());
-        logger.info("User created ID: " + user.getId());
-        return userMapper.mapToUserDTO(userRepository.save(user));
+        String email = userDTO.getEmail();
+        if (email != null && emailFilter.exists(email, userRepository::existsByEmail)) {
+            logger.warn("User with email already exists");
+            throw new DuplicateKeyException("User with email " + email + " already exists");
+        }
+        User user = userRepository.save(userMapper.mapToUserEntity(userDTO));
+        emailFilter.add(user.getEmail());
+        outboxService.recordCreate(user);
+        tableVersion.changedAfterCommit();
+        logger.info("User created ID: {}", user.getId());
+        return userMapper.mapToUserDTO(user);
     }
 
+    /**
+     * Applies the non-null fields of {@code userDTO} with a single UPDATE. If the DTO carries a
+     * version, the update only succeeds when it matches the stored one; otherwise it fails with
+     * {@link OptimisticLockingFailureException} instead of overwriting a concurrent change. The
+     * cached entry is evicted up front so a conflicting caller reloads the current version.
+     */
+    @Caching(evict = @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id", beforeInvocation = true),
+            put = @CachePut(cacheNames = CacheConfig.USERS_CACHE, key = "#id"))
     @Transactional
     public UserDTO updateUser(Long id, UserDTO userDTO) {
-        logger.debug("Updating user ID: " + id);
-        User foundedUser = userRepository.findById(id)
+        logger.debug("Updating user ID: {}", id);
+        if (userDTO.getName() == null && userDTO.getEmail() == null && userDTO.getAge() == null) {
+            throw new IllegalArgumentException("Nothing to update for user id: " + id);
+        }
+        User saved = userRepository.updateReturning(id, userDTO.getVersion(),
+                        userDTO.getName(), userDTO.getEmail(), userDTO.getAge())
                 .orElseThrow(() -> {
-                    logger.error("User not found ID: " + id);
-                    return new RuntimeException("User not found by id: " + id);
+                    if (!userRepository.existsById(id)) {
+                        logger.error("User not found ID: {}", id);
+                        return new RuntimeException("User not found by id: " + id);
+                    }
+                    logger.warn("Version conflict on update of user ID: {} expected version: {}", id, userDTO.getVersion());
+                    return new OptimisticLockingFailureException("User " + id
+                            + " was modified concurrently, expected version " + userDTO.getVersion());
                 });
-        userMapper.updateUserFromDTO(userDTO, foundedUser);
-        logger.info("User updated ID: " + id);
-        return userMapper.mapToUserDTO(userRepository.save(foundedUser));
+        if (userDTO.getEmail() != null) {
+            emailFilter.add(saved.getEmail());
+        }
+        outboxService.recordUpdate(saved);
+        tableVersion.changedAfterCommit();
+        logger.info("User updated ID: {}", id);
+        return userMapper.mapToUserDTO(saved);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     @Transactional
     public void deleteUser(Long id) {
-        logger.debug("Deleting user ID: " + id);
-        User found = userRepository.findById(id).orElseThrow(() -> {
-            logger.error("User not found ID: " + id);
+        logger.debug("Deleting user ID: {}", id);
+        User deleted = userRepository.deleteByIdReturning(id).orElseThrow(() -> {
+            logger.error("User not found ID: {}", id);
             return new RuntimeException("User not found by id: " + id);
         });
-        if (found != null) {
-            userRepository.delete(found);
-            producerService.sendUserDelete(found.getEmail());
-            logger.info("User deleted ID: " + id);
-        }
-
-
+        outboxService.recordDelete(deleted);
+        tableVersion.changedAfterCommit();
+        logger.info("User deleted ID: {}", id);
     }
 }
@@ -0,0 +1,111 @@
+package springApp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springApp.dto.UserDTO;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory change version of the users table, the validator behind the ETag and Last-Modified
+ * headers of the user pages. Every write path bumps it once its transaction commits, and
+ * {@link UserCacheInvalidationListener} bumps it for changes made by other instances. Tags start
+ * with a random id of the running instance, so they never repeat across restarts or match
+ * another instance's; a client switching instances just gets a full response. The tags are weak:
+ * they stand for the data rather than the bytes, and Tomcat never gzips a response carrying a
+ * strong tag, since the compressed bytes would need a tag of their own.
+ * <p>
+ * Read the version before the data it describes: a change committed in between then only costs
+ * one extra full response. With read replicas a page rendered just after a commit may still come
+ * from a replica that hasn't replayed it, so the version is bumped once more after
+ * {@code users.datasource.replica-max-lag}.
+ */
+@Service
+public class UserTableVersion {
+
+    public record Version(String etag, long changedAt) {
+    }
+
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(new Snapshot(0, System.currentTimeMillis()));
+    private final TaskScheduler taskScheduler;
+    private final Duration replicaMaxLag;
+    private final AtomicBoolean settlePending = new AtomicBoolean();
+    private volatile long settleAt;
+
+    public UserTableVersion(TaskScheduler taskScheduler,
+                            @Value("${users.datasource.replica-urls:}") List<String> replicaUrls,
+                            @Value("${users.datasource.replica-max-lag:5s}") Duration replicaMaxLag) {
+        this.taskScheduler = taskScheduler;
+        this.replicaMaxLag = replicaUrls.isEmpty() ? Duration.ZERO : replicaMaxLag;
+    }
+
+    public Version current() {
+        Snapshot snapshot = current.get();
+        return new Version("W/\"" + epoch + "-" + snapshot.version + "\"", snapshot.changedAt);
+    }
+
+    /**
+     * Tag of a single user's edit form: changes with the user's row version and fields, not with
+     * the rest of the table.
+     */
+    public String etag(UserDTO user) {
+        int fields = Objects.hash(user.getName(), user.getEmail(), user.getAge(), user.getCreated_at());
+        return "W/\"" + epoch + "-" + user.getId() + "-" + user.getVersion() + "-" + Integer.toHexString(fields) + "\"";
+    }
+
+    /**
+     * Bumps the version once the current transaction commits, right away outside of one.
+     */
+    public void changedAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed();
+            }
+        });
+    }
+
+    public void changed() {
+        bump();
+        if (!replicaMaxLag.isZero()) {
+            settleAt = System.currentTimeMillis() + replicaMaxLag.toMillis();
+            scheduleSettle();
+        }
+    }
+
+    private void bump() {
+        long now = System.currentTimeMillis();
+        current.updateAndGet(snapshot -> new Snapshot(snapshot.version + 1, Math.max(now, snapshot.changedAt)));
+    }
+
+    private void scheduleSettle() {
+        if (settlePending.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::settle, Instant.ofEpochMilli(settleAt));
+        }
+    }
+
+    private void settle() {
+        settlePending.set(false);
+        bump();
+        if (settleAt > System.currentTimeMillis()) {
+            scheduleSettle();
+        }
+    }
+
+    private record Snapshot(long version, long changedAt) {
+    }
+}
@@ -0,0 +1,3 @@
+-- Outbox ids are drawn one at a time when the row is inserted, never from a per-instance block,
+-- so the relay's ORDER BY id follows the order in which changes to the same user committed.
+ALTER SEQUENCE user_outbox_seq INCREMENT BY 1;
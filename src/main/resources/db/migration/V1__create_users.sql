@@ -0,0 +1,8 @@
+-- Baseline schema. Existing databases are baselined at this version and skip it.
+CREATE TABLE IF NOT EXISTS users (
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255),
+    email      VARCHAR(255),
+    age        INTEGER,
+    created_at TIMESTAMP(6)
+);
@@ -0,0 +1,7 @@
+-- Pooled sequence for users.id so Hibernate can batch inserts (allocationSize = 50 on User).
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', GREATEST((SELECT MAX(id) FROM users), 1));
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
@@ -0,0 +1,2 @@
+-- Rows loaded with COPY bypass the entity's @PrePersist, so the column needs its own default.
+ALTER TABLE users ALTER COLUMN created_at SET DEFAULT LOCALTIMESTAMP(0);
@@ -0,0 +1,12 @@
+-- Transactional outbox for user events, drained to Kafka by UserOutboxRelay.
+CREATE SEQUENCE IF NOT EXISTS user_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id         BIGINT PRIMARY KEY DEFAULT nextval('user_outbox_seq'),
+    user_id    INTEGER,
+    operation  VARCHAR(32) NOT NULL,
+    payload    VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+ALTER SEQUENCE user_outbox_seq OWNED BY user_outbox.id;
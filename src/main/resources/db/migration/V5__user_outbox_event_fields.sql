@@ -0,0 +1,8 @@
+-- Outbox rows carry the full binary UserEvent instead of a bare email payload.
+ALTER TABLE user_outbox RENAME COLUMN payload TO email;
+ALTER TABLE user_outbox ADD COLUMN name VARCHAR(255);
+ALTER TABLE user_outbox ADD COLUMN age INTEGER;
+ALTER TABLE user_outbox ADD COLUMN row_count BIGINT;
+
+UPDATE user_outbox SET row_count = CAST(email AS BIGINT), email = NULL WHERE operation = 'bulk-load';
+UPDATE user_outbox SET operation = UPPER(REPLACE(operation, '-', '_'));
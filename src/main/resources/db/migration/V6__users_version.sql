@@ -0,0 +1,2 @@
+-- Optimistic locking: every update bumps the version and only applies if the caller saw the current one.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- B-tree indexes behind the user search. Built CONCURRENTLY so a large table stays writable;
+-- Flyway runs this migration outside a transaction because every statement is non-transactional.
+-- An interrupted concurrent build leaves an INVALID index behind, so each index is dropped first
+-- instead of relying on IF NOT EXISTS when the migration is retried.
+-- text_pattern_ops lets LIKE 'prefix%' use the index whatever the database collation is.
+DROP INDEX CONCURRENTLY IF EXISTS users_email_idx;
+CREATE INDEX CONCURRENTLY users_email_idx ON users (email);
+
+DROP INDEX CONCURRENTLY IF EXISTS users_name_lower_prefix_idx;
+CREATE INDEX CONCURRENTLY users_name_lower_prefix_idx ON users (lower(name) text_pattern_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS users_age_idx;
+CREATE INDEX CONCURRENTLY users_age_idx ON users (age);
+
+DROP INDEX CONCURRENTLY IF EXISTS users_created_at_idx;
+CREATE INDEX CONCURRENTLY users_created_at_idx ON users (created_at);
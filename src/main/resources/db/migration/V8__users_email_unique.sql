@@ -0,0 +1,8 @@
+-- Emails are unique. The build fails if the table already holds duplicates; find them with
+--   SELECT email, count(*) FROM users GROUP BY email HAVING count(*) > 1;
+-- and rerun: the index is dropped first because a failed concurrent build leaves an INVALID one.
+DROP INDEX CONCURRENTLY IF EXISTS users_email_key;
+CREATE UNIQUE INDEX CONCURRENTLY users_email_key ON users (email);
+
+-- The unique index serves exact email lookups, so the plain search index from V7 is redundant.
+DROP INDEX CONCURRENTLY IF EXISTS users_email_idx;
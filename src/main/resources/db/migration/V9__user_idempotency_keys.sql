@@ -0,0 +1,10 @@
+-- Idempotency keys of user creates: a retried request with the same key gets the user created by
+-- the first attempt. The row is claimed before the user is inserted and completed in the same
+-- transaction, so other transactions only ever see it with user_id set.
+CREATE TABLE IF NOT EXISTS user_idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    user_id         INTEGER,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS user_idempotency_keys_created_at_idx ON user_idempotency_keys (created_at);
@@ -0,0 +1,81 @@
+package springApp.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ConnectionPoolMonitor monitor = new ConnectionPoolMonitor(meterRegistry, 0.9, 3);
+
+    @BeforeEach
+    void setUp() {
+        Tags pool = Tags.of("pool", "primary");
+        meterRegistry.gauge("hikaricp.connections.max", pool, 10);
+        meterRegistry.gauge("hikaricp.connections.active", pool, active);
+        meterRegistry.gauge("hikaricp.connections.pending", pool, pending);
+    }
+
+    @Test
+    void whenBusyForEnoughChecks_ShouldRaiseOneAlert() {
+        active.set(9);
+
+        monitor.check();
+        monitor.check();
+        assertFalse(monitor.isSaturated("primary"));
+
+        monitor.check();
+        monitor.check();
+        assertTrue(monitor.isSaturated("primary"));
+        assertEquals(1, meterRegistry.get("datasource.pool.saturation.alerts").counter().count());
+        assertEquals(1, meterRegistry.get("datasource.pool.saturated").gauge().value());
+    }
+
+    @Test
+    void whenThreadsWaiting_ShouldCountAsBusy() {
+        active.set(2);
+        pending.set(1);
+
+        monitor.check();
+        monitor.check();
+        monitor.check();
+
+        assertTrue(monitor.isSaturated("primary"));
+    }
+
+    @Test
+    void whenBusySpellInterrupted_ShouldStartCountingAgain() {
+        active.set(10);
+        monitor.check();
+        monitor.check();
+        active.set(1);
+        monitor.check();
+        active.set(10);
+        monitor.check();
+        monitor.check();
+
+        assertFalse(monitor.isSaturated("primary"));
+    }
+
+    @Test
+    void whenPoolRecovers_ShouldClearAlert() {
+        active.set(10);
+        monitor.check();
+        monitor.check();
+        monitor.check();
+
+        active.set(3);
+        monitor.check();
+
+        assertFalse(monitor.isSaturated("primary"));
+        assertEquals(0, meterRegistry.get("datasource.pool.saturated").gauge().value());
+    }
+}
@@ -0,0 +1,48 @@
+package springApp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LogSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.addLogger("springApp.service");
+        filter.setRate(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void dropsInfoOfSampledLoggersAndTheirChildren() {
+        assertEquals(FilterReply.DENY, decide("springApp.service", Level.INFO, "User created ID: {}"));
+        assertEquals(FilterReply.DENY, decide("springApp.service.UserService", Level.INFO, "User created ID: {}"));
+    }
+
+    @Test
+    void keepsOtherLevelsLoggersAndEnabledChecks() {
+        assertEquals(FilterReply.NEUTRAL, decide("springApp.service.UserService", Level.WARN, "slow"));
+        assertEquals(FilterReply.NEUTRAL, decide("springApp.service.UserService", Level.DEBUG, "debug"));
+        assertEquals(FilterReply.NEUTRAL, decide("springApp.serviceX", Level.INFO, "other logger"));
+        assertEquals(FilterReply.NEUTRAL, decide("springApp.service.UserService", Level.INFO, null));
+    }
+
+    @Test
+    void rateOfOneKeepsEverything() {
+        filter.setRate(1);
+
+        assertEquals(FilterReply.NEUTRAL, decide("springApp.service.UserService", Level.INFO, "User created ID: {}"));
+    }
+
+    private FilterReply decide(String loggerName, Level level, String format) {
+        Logger logger = context.getLogger(loggerName);
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}
@@ -0,0 +1,81 @@
+package springApp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaLagMonitorTest {
+
+    private final ReplicaLagMonitor monitor =
+            new ReplicaLagMonitor(new HikariDataSource(), List.of(), Duration.ofSeconds(5));
+
+    @Test
+    void whenReplayedEverythingSampled_ShouldHaveNoLag() {
+        monitor.record(100, 1_000);
+        monitor.record(200, 2_000);
+
+        assertEquals(0, monitor.lagSeconds(200L, 60_000));
+    }
+
+    @Test
+    void whenPrimaryIdle_ShouldHaveNoLagHoweverLongAgo() {
+        monitor.record(100, 1_000);
+        monitor.record(100, 2_000);
+        monitor.record(100, 3_600_000);
+
+        assertEquals(0, monitor.lagSeconds(100L, 3_600_000));
+    }
+
+    @Test
+    void whenReplayStuck_ShouldAgeFromFirstMissedPosition() {
+        monitor.record(100, 1_000);
+        monitor.record(200, 2_000);
+        monitor.record(300, 3_000);
+        monitor.record(400, 9_000);
+
+        assertEquals(7, monitor.lagSeconds(150L, 9_000));
+    }
+
+    @Test
+    void whenNotInRecovery_ShouldHaveUnknownLag() {
+        monitor.record(100, 1_000);
+
+        assertTrue(Double.isNaN(monitor.lagSeconds(null, 9_000)));
+    }
+
+    @Test
+    void whenFarBehindAtStartup_ShouldHaveUnknownLag() {
+        monitor.record(5_000, 1_000);
+
+        assertTrue(Double.isNaN(monitor.lagSeconds(100L, 1_000)));
+    }
+
+    @Test
+    void whenReplicaUnreachable_ShouldKeepSamplesForItsReturn() {
+        monitor.record(100, 1_000);
+        monitor.prune(100);
+        monitor.record(200, 2_000);
+        monitor.prune(Long.MIN_VALUE);
+        monitor.record(300, 3_000);
+        monitor.prune(Long.MIN_VALUE);
+
+        assertEquals(8, monitor.lagSeconds(150L, 10_000));
+    }
+
+    @Test
+    void whenPruned_ShouldStillMeasureSlowestReplica() {
+        monitor.record(100, 1_000);
+        monitor.record(200, 2_000);
+        monitor.record(300, 3_000);
+
+        monitor.prune(250);
+
+        assertEquals(0, monitor.lagSeconds(300L, 10_000));
+        assertEquals(7, monitor.lagSeconds(250L, 10_000));
+        assertTrue(Double.isNaN(monitor.lagSeconds(150L, 10_000)));
+    }
+}
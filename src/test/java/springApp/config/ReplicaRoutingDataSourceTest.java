@@ -0,0 +1,60 @@
+package springApp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final Replica first = new Replica("replica-0", new HikariDataSource());
+    private final Replica second = new Replica("replica-1", new HikariDataSource());
+    private final Counter fallbacks = new SimpleMeterRegistry().counter("fallbacks");
+    private final ReplicaRoutingDataSource routing =
+            new ReplicaRoutingDataSource(new HikariDataSource(), List.of(first, second), fallbacks);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void whenNotReadOnly_ShouldUsePrimary() {
+        first.update(0, true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void whenReadOnly_ShouldRotateOverUsableReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        first.update(0, true);
+        second.update(0.2, true);
+
+        assertNotEquals(routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void whenReplicaLagging_ShouldSkipIt() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        first.update(30, false);
+        second.update(0, true);
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void whenNoReplicaUsable_ShouldFallBackToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(1, fallbacks.count());
+    }
+}
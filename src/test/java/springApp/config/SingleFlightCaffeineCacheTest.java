@@ -0,0 +1,87 @@
+package springApp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightCaffeineCacheTest {
+
+    // one bin, so every key would share the lock a synchronous Caffeine load holds
+    private final SingleFlightCaffeineCache cache = new SingleFlightCaffeineCache("test",
+            Caffeine.newBuilder().initialCapacity(1).maximumSize(100).build(), false);
+
+    @Test
+    void whenLoadRunning_ShouldNotBlockOtherKeys() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> cache.get(1, () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "slow";
+        }));
+        Thread.sleep(100);
+
+        assertEquals("fast", cache.get(2, () -> "fast"));
+        assertFalse(slow.isDone());
+        release.countDown();
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void whenLoadFails_ShouldNotCacheAndLoadAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(3, () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("down");
+        }));
+        assertEquals("up", cache.get(3, () -> {
+            loads.incrementAndGet();
+            return "up";
+        }));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void whenEvictedDuringLoad_ShouldNotStoreLoadedValue() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get(4, () -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "before update";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        cache.evict(4);
+        release.countDown();
+
+        assertEquals("before update", load.get(5, TimeUnit.SECONDS));
+        assertNull(cache.get(4));
+        assertEquals("after update", cache.get(4, () -> "after update"));
+    }
+
+    @Test
+    void whenPutDuringLoad_ShouldKeepPutValue() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get(5, () -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "before update";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        cache.put(5, "updated");
+        release.countDown();
+        load.get(5, TimeUnit.SECONDS);
+
+        assertEquals("updated", cache.get(5, String.class));
+    }
+}
@@ -0,0 +1,44 @@
+package springApp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlStatementMetricsFilterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(counter, meterRegistry);
+
+    @Test
+    void recordsStatementsPerRequestByUriPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/7");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            counter.inspect("select 1");
+            counter.inspect("select 2");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}");
+        });
+
+        DistributionSummary summary = meterRegistry.get(SqlStatementMetricsFilter.METRIC)
+                .tag("method", "GET").tag("uri", "/users/{id}").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void ignoresStatementsOutsideRequests() {
+        counter.inspect("select 1");
+
+        counter.start();
+        counter.inspect("select 2");
+
+        assertEquals(1, counter.stop());
+        assertEquals(0, counter.stop());
+    }
+}
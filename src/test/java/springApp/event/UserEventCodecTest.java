@@ -0,0 +1,63 @@
+package springApp.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserEventCodecTest {
+
+    private static final Instant TIMESTAMP = Instant.ofEpochMilli(1_760_000_000_123L);
+
+    @Test
+    void shouldRoundTripUserEvent() {
+        UserEvent event = new UserEvent(123456, UserEvent.Operation.UPDATE, "Иван", "ivan@test.com", 42, null, TIMESTAMP);
+
+        assertEquals(event, UserEventCodec.decode(UserEventCodec.encode(event)));
+    }
+
+    @Test
+    void shouldRoundTripBulkLoadEvent() {
+        UserEvent event = UserEvent.bulkLoad(2_000_000L, TIMESTAMP);
+
+        UserEvent decoded = UserEventCodec.decode(UserEventCodec.encode(event));
+
+        assertEquals(event, decoded);
+        assertEquals(UserEvent.TABLE_KEY, decoded.userId());
+    }
+
+    @Test
+    void shouldBeSmallerThanJsonOfTheSameEvent() throws Exception {
+        UserEvent event = new UserEvent(123456, UserEvent.Operation.CREATE, "Test User", "test.user@example.com", 30, null, TIMESTAMP);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        int binary = UserEventCodec.encode(event).length;
+        int json = objectMapper.writeValueAsBytes(event).length;
+
+        assertTrue(binary * 2 < json, "binary " + binary + " bytes, json " + json + " bytes");
+    }
+
+    @Test
+    void whenVersionIsUnknown_ShouldReject() {
+        byte[] data = UserEventCodec.encode(UserEvent.bulkLoad(1, TIMESTAMP));
+        data[0] = UserEventCodec.VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(data));
+    }
+
+    @Test
+    void whenDataIsTruncated_DeserializerShouldThrowSerializationException() {
+        byte[] data = UserEventCodec.encode(new UserEvent(1, UserEvent.Operation.DELETE, "test", "test@test.com", 20, null, TIMESTAMP));
+        byte[] truncated = Arrays.copyOf(data, data.length - 4);
+
+        assertThrows(SerializationException.class,
+                () -> new UserEventDeserializer().deserialize("user-events", truncated));
+    }
+}
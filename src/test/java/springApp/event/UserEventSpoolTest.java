@@ -0,0 +1,118 @@
+package springApp.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserEventSpoolTest {
+
+    private static final int SEGMENT_BYTES = 1024;
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadEventsInAppendOrderAcrossSegments() throws Exception {
+        try (UserEventSpool spool = new UserEventSpool(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES)) {
+            List<UserEvent> events = events(1, 60);
+            assertTrue(spool.append(events));
+
+            UserEventSpool.Batch batch = spool.read(100);
+
+            assertEquals(events, batch.events());
+            assertTrue(spool.diskBytes() > SEGMENT_BYTES);
+            assertEquals(60, spool.pending());
+        }
+    }
+
+    @Test
+    void shouldKeepUncommittedEventsAcrossRestart() throws Exception {
+        try (UserEventSpool spool = new UserEventSpool(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES)) {
+            spool.append(events(1, 30));
+            spool.commit(spool.read(10));
+            spool.read(10);
+        }
+
+        try (UserEventSpool spool = new UserEventSpool(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES)) {
+            assertEquals(20, spool.pending());
+            assertEquals(11, spool.read(1).events().get(0).userId());
+            assertTrue(spool.append(events(31, 1)));
+            assertEquals(events(11, 21), spool.read(100).events());
+        }
+    }
+
+    @Test
+    void whenBatchDoesNotFit_ShouldRejectItWhole() throws Exception {
+        try (UserEventSpool spool = new UserEventSpool(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES)) {
+            assertTrue(spool.append(events(1, 30)));
+
+            assertFalse(spool.append(events(31, 30)));
+
+            assertEquals(30, spool.pending());
+            assertEquals(2L * SEGMENT_BYTES, spool.diskBytes());
+        }
+    }
+
+    @Test
+    void whenSegmentsAreConsumed_ShouldDeleteThem() throws Exception {
+        try (UserEventSpool spool = new UserEventSpool(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES)) {
+            spool.append(events(1, 60));
+
+            spool.commit(spool.read(100));
+
+            assertTrue(spool.isEmpty());
+            assertTrue(spool.oldestAppendedAt().isEmpty());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.filter(file -> file.toString().endsWith(".seg")).count());
+            }
+        }
+    }
+
+    @Test
+    void whenRecordWasTorn_ShouldNotReplayItsBodyAfterShorterAppend() throws Exception {
+        UserEvent shorter = new UserEvent(3, UserEvent.Operation.DELETE, null, null, null, null, Instant.EPOCH);
+        int end;
+        try (UserEventSpool spool = new UserEventSpool(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES)) {
+            spool.append(events(1, 1));
+            end = HEADER_BYTES + UserEventCodec.encode(events(1, 1).get(0)).length;
+        }
+        // a crash before the length of the record at end was written, leaving its body, which
+        // happens to hold a complete record right behind where the shorter event will end
+        byte[] stale = UserEventCodec.encode(events(2, 1).get(0));
+        ByteBuffer torn = ByteBuffer.allocate(HEADER_BYTES + stale.length)
+                .putInt(stale.length).putLong(0).put(stale).flip();
+        try (FileChannel segment = FileChannel.open(directory.resolve(String.format("%020d.seg", 0)),
+                StandardOpenOption.WRITE)) {
+            segment.write(torn, end + HEADER_BYTES + UserEventCodec.encode(shorter).length);
+        }
+
+        try (UserEventSpool spool = new UserEventSpool(directory, SEGMENT_BYTES, 8 * SEGMENT_BYTES)) {
+            assertEquals(1, spool.pending());
+            assertTrue(spool.append(List.of(shorter)));
+
+            assertEquals(List.of(events(1, 1).get(0), shorter), spool.read(100).events());
+            assertEquals(2, spool.pending());
+        }
+    }
+
+    private static List<UserEvent> events(int firstId, int count) {
+        Instant timestamp = Instant.ofEpochMilli(1_760_000_000_000L);
+        return IntStream.range(firstId, firstId + count)
+                .mapToObj(id -> new UserEvent(id, UserEvent.Operation.CREATE, "user" + id, "user" + id + "@test.com", 20, null, timestamp))
+                .toList();
+    }
+}
@@ -3,6 +3,8 @@ package springApp.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import springApp.DataBaseIntegrationTestInitClass;
+import springApp.dto.UserDTO;
+import springApp.dto.UserSearchCriteria;
 import springApp.entity.User;
 
 import java.util.List;
@@ -96,4 +98,80 @@ public class UserRepositoryIntegrationTest extends DataBaseIntegrationTestInitCl
         assertThatNoException()
                 .isThrownBy(() -> userRepository.deleteById(-1L));
     }
+
+    @Test
+    void whenUpdateReturning_ShouldSetOnlyGivenFieldsAndBumpVersion() {
+        User user = saveUser("Test", "test@test.com");
+
+        Optional<User> updated = userRepository.updateReturning(Long.valueOf(user.getId()), null, null, null, 30);
+
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getName()).isEqualTo("Test");
+        assertThat(updated.get().getEmail()).isEqualTo("test@test.com");
+        assertThat(updated.get().getAge()).isEqualTo(30);
+        assertThat(updated.get().getVersion()).isEqualTo(user.getVersion() + 1);
+    }
+
+    @Test
+    void whenUpdateReturning_StaleVersion_ShouldNotUpdate() {
+        User user = saveUser("Test", "test@test.com");
+        Long id = Long.valueOf(user.getId());
+        userRepository.updateReturning(id, user.getVersion(), "First", null, null);
+
+        Optional<User> stale = userRepository.updateReturning(id, user.getVersion(), "Second", null, null);
+
+        assertThat(stale).isEmpty();
+        assertThat(userRepository.findDtoById(id).get().getName()).isEqualTo("First");
+    }
+
+    @Test
+    void whenDeleteByIdReturning_ShouldReturnDeletedRow() {
+        User user = saveUser("Test", "test@test.com");
+        Long id = Long.valueOf(user.getId());
+
+        Optional<User> deleted = userRepository.deleteByIdReturning(id);
+
+        assertThat(deleted).isPresent();
+        assertThat(deleted.get().getEmail()).isEqualTo("test@test.com");
+        assertThat(userRepository.findDtoById(id)).isEmpty();
+        assertThat(userRepository.deleteByIdReturning(id)).isEmpty();
+    }
+
+    @Test
+    void whenSearchByName_ShouldMatchLikeWildcardsLiterally() {
+        saveUser("50%_off", "percent@test.com");
+        saveUser("50 off", "space@test.com");
+        saveUser("50x_off", "letter@test.com");
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setName("50%_");
+
+        List<UserDTO> found = userRepository.search(criteria, null, 10);
+
+        assertThat(found).extracting(UserDTO::getEmail).containsExactly("percent@test.com");
+    }
+
+    @Test
+    void whenSearchAfterId_ShouldReturnNextUsersInIdOrder() {
+        User first = saveUser("Page", "page1@test.com");
+        User second = saveUser("page", "page2@test.com");
+        User third = saveUser("PAGE", "page3@test.com");
+        saveUser("Other", "other@test.com");
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setName("page");
+
+        List<UserDTO> firstPage = userRepository.search(criteria, null, 2);
+        List<UserDTO> nextPage = userRepository.search(criteria, firstPage.get(1).getId(), 2);
+
+        assertThat(firstPage).extracting(UserDTO::getId).containsExactly(first.getId(), second.getId());
+        assertThat(nextPage).extracting(UserDTO::getId).containsExactly(third.getId());
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setAge(20);
+        // flushed, the custom methods run plain SQL on the transaction's connection
+        return userRepository.saveAndFlush(user);
+    }
 }
@@ -0,0 +1,136 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import springApp.event.UserEvent;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class KafkaProducerServiceTest {
+
+    @Mock
+    private KafkaTemplate<Integer, UserEvent> kafkaTemplate;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<Integer, UserEvent>> captor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaProducerService producerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(kafkaTemplate.getDefaultTopic()).thenReturn("user-events");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (producerService != null && producerService.isRunning()) {
+            producerService.stop();
+        }
+    }
+
+    @Test
+    void whenBrokerAcknowledges_ShouldCompleteFutureAndRecordDelivery() throws Exception {
+        producerService = new KafkaProducerService(kafkaTemplate, meterRegistry, 10,
+                KafkaProducerService.OverflowPolicy.BLOCK, 100);
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        producerService.start();
+
+        producerService.send(event(1, "test@test.com")).get(5, TimeUnit.SECONDS);
+
+        verify(kafkaTemplate).send(captor.capture());
+        ProducerRecord<Integer, UserEvent> record = captor.getValue();
+        assertEquals(1, record.key());
+        assertEquals("test@test.com", record.value().email());
+        assertEquals(1.0, meterRegistry.counter("user.events.delivered").count());
+        assertEquals(1, meterRegistry.timer("user.events.delivery").count());
+    }
+
+    @Test
+    void whenBrokerFails_ShouldFailFuture() {
+        producerService = new KafkaProducerService(kafkaTemplate, meterRegistry, 10,
+                KafkaProducerService.OverflowPolicy.BLOCK, 100);
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        producerService.start();
+
+        CompletableFuture<Void> future = producerService.send(event(1, "test@test.com"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.counter("user.events.failed").count());
+    }
+
+    @Test
+    void whenQueueIsFullAndPolicyIsDrop_ShouldRejectImmediately() throws Exception {
+        producerService = new KafkaProducerService(kafkaTemplate, meterRegistry, 1,
+                KafkaProducerService.OverflowPolicy.DROP, 100);
+        CountDownLatch dispatcherBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(kafkaTemplate.send(anyRecord())).thenAnswer(invocation -> {
+            dispatcherBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture(new SendResult<>(null, null));
+        });
+        producerService.start();
+
+        producerService.send(event(1, "a@test.com"));
+        assertTrue(dispatcherBusy.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = producerService.send(event(2, "b@test.com"));
+        CompletableFuture<Void> dropped = producerService.send(event(3, "c@test.com"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> dropped.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.counter("user.events.rejected").count());
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void whenStopped_ShouldRejectNewEvents() {
+        producerService = new KafkaProducerService(kafkaTemplate, meterRegistry, 10,
+                KafkaProducerService.OverflowPolicy.BLOCK, 100);
+
+        CompletableFuture<Void> future = producerService.send(event(1, "test@test.com"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        verify(kafkaTemplate, never()).send(anyRecord());
+    }
+
+    // typed any(), send is overloaded and any(ProducerRecord.class) is a raw type
+    private static ProducerRecord<Integer, UserEvent> anyRecord() {
+        return any();
+    }
+
+    private static UserEvent event(int userId, String email) {
+        return new UserEvent(userId, UserEvent.Operation.CREATE, "test", email, 20, null, Instant.now());
+    }
+}
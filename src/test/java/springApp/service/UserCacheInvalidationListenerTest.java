@@ -0,0 +1,67 @@
+package springApp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import springApp.config.CacheConfig;
+import springApp.dto.UserDTO;
+import springApp.event.UserEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class UserCacheInvalidationListenerTest {
+
+    private Cache cache;
+    private UserTableVersion tableVersion;
+    private UserEmailFilter emailFilter;
+    private UserCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE);
+        cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        tableVersion = new UserTableVersion(null, List.of(), Duration.ZERO);
+        emailFilter = mock(UserEmailFilter.class);
+        listener = new UserCacheInvalidationListener(cacheManager, tableVersion, emailFilter);
+    }
+
+    @Test
+    void whenUserEventReceived_ShouldEvictCachedUser() {
+        cache.put(1L, new UserDTO());
+        cache.put(2L, new UserDTO());
+
+        listener.onUserEvent(new UserEvent(1, UserEvent.Operation.UPDATE, "test", "test@test.com", 20, null, Instant.now()));
+
+        assertNull(cache.get(1L));
+        assertNotNull(cache.get(2L));
+        verify(emailFilter).add("test@test.com");
+    }
+
+    @Test
+    void whenDeleteReceived_ShouldNotTouchEmailFilter() {
+        listener.onUserEvent(new UserEvent(1, UserEvent.Operation.DELETE, "test", "test@test.com", 20, null, Instant.now()));
+
+        verifyNoInteractions(emailFilter);
+    }
+
+    @Test
+    void whenBulkLoadReceived_ShouldKeepCacheButChangeTableVersion() {
+        cache.put(1L, new UserDTO());
+        String etag = tableVersion.current().etag();
+
+        listener.onUserEvent(UserEvent.bulkLoad(100, Instant.now()));
+
+        assertNotNull(cache.get(1L));
+        assertNotEquals(etag, tableVersion.current().etag());
+    }
+}
@@ -0,0 +1,83 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import springApp.event.UserEvent;
+import springApp.event.UserEventPublisher;
+import springApp.event.UserEventSpool;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserEventSpoolDrainerTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<UserEvent> delivered = new ArrayList<>();
+    private boolean brokerUp;
+    private UserEventSpool spool;
+    private SimpleMeterRegistry meterRegistry;
+    private UserEventSpoolDrainer drainer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        spool = new UserEventSpool(directory, 4096, 16 * 4096);
+        meterRegistry = new SimpleMeterRegistry();
+        UserEventPublisher broker = event -> {
+            if (!brokerUp) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+            }
+            delivered.add(event);
+            return CompletableFuture.completedFuture(null);
+        };
+        drainer = new UserEventSpoolDrainer(spool, broker, meterRegistry, 10, 0, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        spool.close();
+    }
+
+    @Test
+    void whenBrokerIsBack_ShouldReplayEverythingInOrder() {
+        List<UserEvent> events = events(25);
+        spool.append(events);
+        brokerUp = true;
+
+        drainer.drain();
+
+        assertEquals(events, delivered);
+        assertTrue(spool.isEmpty());
+        assertEquals(25.0, meterRegistry.counter("user.events.spool.replayed").count());
+    }
+
+    @Test
+    void whenBrokerIsDown_ShouldKeepEventsAndReportTheirAge() throws Exception {
+        spool.append(events(5));
+        Thread.sleep(20);
+
+        drainer.drain();
+
+        assertTrue(delivered.isEmpty());
+        assertEquals(5.0, meterRegistry.get("user.events.spool.size").gauge().value());
+        assertTrue(meterRegistry.get("user.events.spool.age").gauge().value() >= 0.02);
+    }
+
+    private static List<UserEvent> events(int count) {
+        Instant timestamp = Instant.now();
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(id -> new UserEvent(id, UserEvent.Operation.UPDATE, "user" + id, "user" + id + "@test.com", 20, null, timestamp))
+                .toList();
+    }
+}
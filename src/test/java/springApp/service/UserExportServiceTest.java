@@ -0,0 +1,80 @@
+package springApp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import springApp.entity.User;
+import springApp.mapper.UserMapper;
+import springApp.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new UserExportService(userRepository, new UserMapper(), entityManager, objectMapper);
+    }
+
+    @Test
+    void whenExportCsv_ShouldQuoteSpecialCharactersAndDetachRows() throws Exception {
+        User first = user(1, "Ivan", "ivan@test.com");
+        User second = user(2, "Doe, \"John\"", "john@test.com");
+        when(userRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(UserExportService.Format.CSV, out);
+
+        assertEquals(2, count);
+        assertEquals("id,name,email,age,created_at\n"
+                        + "1,Ivan,ivan@test.com,20,\n"
+                        + "2,\"Doe, \"\"John\"\"\",john@test.com,20,\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    void whenExportNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        when(userRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(user(1, "a", "a@test.com"), user(2, "b", "b@test.com")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(UserExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"a\",\"email\":\"a@test.com\",\"age\":20,\"created_at\":null,\"version\":null}", lines[0]);
+    }
+
+    private static User user(int id, String name, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        user.setAge(20);
+        return user;
+    }
+}
@@ -0,0 +1,100 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import springApp.config.CacheConfig;
+import springApp.dto.UserDTO;
+import springApp.repository.UserIdempotencyKeyRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserIdempotencyServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserIdempotencyKeyRepository keyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new UserIdempotencyService(userService, keyRepository,
+                new ConcurrentMapCacheManager(CacheConfig.IDEMPOTENCY_CACHE), transactionManager,
+                new SimpleMeterRegistry(), Duration.ofHours(24));
+    }
+
+    @Test
+    void whenNoKey_ShouldCreateWithoutTouchingKeys() {
+        UserDTO input = new UserDTO();
+        when(userService.createUser(input)).thenReturn(dtoWithId(1));
+
+        UserDTO result = idempotencyService.createUser(input, null);
+
+        assertEquals(1, result.getId());
+        verifyNoInteractions(keyRepository);
+    }
+
+    @Test
+    void whenKeyRepeated_ShouldCreateOnceAndReplayFromMemory() {
+        UserDTO input = new UserDTO();
+        when(keyRepository.claim("k1")).thenReturn(true);
+        when(userService.createUser(input)).thenReturn(dtoWithId(7));
+
+        UserDTO first = idempotencyService.createUser(input, "k1");
+        UserDTO repeat = idempotencyService.createUser(input, "k1");
+
+        assertEquals(7, first.getId());
+        assertSame(first, repeat);
+        verify(userService, times(1)).createUser(any());
+        verify(keyRepository, times(1)).claim("k1");
+        verify(keyRepository).complete("k1", 7);
+    }
+
+    @Test
+    void whenKeyClaimedElsewhere_ShouldReturnTheExistingUser() {
+        UserDTO input = new UserDTO();
+        input.setIdempotencyKey("k2");
+        when(keyRepository.claim("k2")).thenReturn(false);
+        when(keyRepository.findUserId("k2")).thenReturn(Optional.of(9));
+        when(userService.getUserById(9L)).thenReturn(dtoWithId(9));
+
+        UserDTO result = idempotencyService.createUser(input, null);
+
+        assertEquals(9, result.getId());
+        verify(userService, never()).createUser(any());
+        InOrder inTransaction = inOrder(userService, transactionManager);
+        inTransaction.verify(userService).getUserById(9L);
+        inTransaction.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void whenKeyTooLong_ShouldReject() {
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.createUser(new UserDTO(), "k".repeat(256)));
+        verifyNoInteractions(userService, keyRepository);
+    }
+
+    private static UserDTO dtoWithId(int id) {
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
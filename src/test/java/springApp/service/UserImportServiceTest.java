@@ -0,0 +1,96 @@
+package springApp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import springApp.dto.UserImportResult;
+import springApp.entity.User;
+import springApp.mapper.UserMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserOutboxService outboxService;
+
+    @Mock
+    private UserEmailFilter emailFilter;
+
+    @Mock
+    private UserTableVersion tableVersion;
+
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserImportService(new UserMapper(), entityManager, transactionManager,
+                outboxService, emailFilter, tableVersion, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void whenRowsInvalid_ShouldReportThemAndCreateTheRest() throws Exception {
+        UserImportResult result = importService.importUsers(json("""
+                [{"name":"a","email":"a@test.com"},
+                 {"name":"","email":"b@test.com"},
+                 {"name":"c","email":"c@test.com","age":-1}]"""));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(3, result.getErrors().get(1).getRow());
+        verify(entityManager, times(1)).persist(any(User.class));
+    }
+
+    @Test
+    void whenChunkFails_ShouldRetryRowByRowAndPinTheError() throws Exception {
+        doAnswer(invocation -> {
+            if ("bad".equals(invocation.<User>getArgument(0).getName())) {
+                throw new PersistenceException("bad row");
+            }
+            return null;
+        }).when(entityManager).persist(any());
+
+        UserImportResult result = importService.importUsers(json("""
+                [{"name":"ok","email":"ok@test.com"},{"name":"bad","email":"bad@test.com"}]"""));
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("bad row", result.getErrors().get(0).getMessage());
+        verify(outboxService, atLeastOnce()).recordCreate(argThat(user -> "ok@test.com".equals(user.getEmail())));
+        verify(outboxService, never()).recordCreate(argThat(user -> "bad@test.com".equals(user.getEmail())));
+    }
+
+    @Test
+    void whenRowMalformed_ShouldStopAndKeepPreviousRows() throws Exception {
+        UserImportResult result = importService.importUsers(json("""
+                [{"name":"a","email":"a@test.com"},{"name":"b","email":"b@test.com","age":"old"}]"""));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getErrors().get(0).getRow());
+    }
+
+    private static ByteArrayInputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package springApp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import springApp.entity.User;
+import springApp.entity.UserOutboxEvent;
+import springApp.event.UserEvent;
+import springApp.event.UserEventSpool;
+import springApp.repository.UserOutboxRepository;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserOutboxRelayTest {
+
+    @Mock
+    private UserOutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaProducerService producerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new UserOutboxRelay(outboxRepository, producerService, Optional.empty(), transactionManager, meterRegistry, 2, 50, 1000);
+    }
+
+    @Test
+    void whenBatchAcknowledged_ShouldDeleteRelayedEvents() {
+        when(outboxRepository.tryRelayLock(anyLong())).thenReturn(true);
+        when(outboxRepository.findNextBatch(2))
+                .thenReturn(List.of(event(1L, 10), event(2L, 11)))
+                .thenReturn(List.of());
+        when(producerService.send(argThat(event -> event.operation() == UserEvent.Operation.CREATE)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2.0, meterRegistry.counter("user.outbox.relayed").count());
+    }
+
+    @Test
+    void whenSendFails_ShouldKeepEventsAndBackOff() {
+        when(outboxRepository.tryRelayLock(anyLong())).thenReturn(true);
+        when(outboxRepository.findNextBatch(2)).thenReturn(List.of(event(1L, 10)));
+        when(producerService.send(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        relay.relay();
+        relay.relay();
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxRepository, times(1)).findNextBatch(2);
+        assertEquals(1.0, meterRegistry.counter("user.outbox.failures").count());
+    }
+
+    @Test
+    void whenSendFailsWithSpool_ShouldMoveEventsToSpoolAndKeepOrder(@TempDir Path directory) throws Exception {
+        try (UserEventSpool spool = new UserEventSpool(directory, 4096, 4 * 4096)) {
+            relay = new UserOutboxRelay(outboxRepository, producerService, Optional.of(spool), transactionManager, meterRegistry, 2, 50, 1000);
+            when(outboxRepository.tryRelayLock(anyLong())).thenReturn(true);
+            when(outboxRepository.findNextBatch(2))
+                    .thenReturn(List.of(event(1L, 10)))
+                    .thenReturn(List.of(event(2L, 11)));
+            when(producerService.send(any()))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+            relay.relay();
+            relay.relay();
+
+            verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+            verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+            verify(producerService, times(1)).send(any());
+            assertEquals(List.of(10, 11), spool.read(10).events().stream().map(UserEvent::userId).toList());
+            assertEquals(2.0, meterRegistry.counter("user.outbox.spooled").count());
+            assertEquals(0.0, meterRegistry.counter("user.outbox.failures").count());
+        }
+    }
+
+    @Test
+    void whenAnotherReplicaHoldsTheLock_ShouldNotReadTheOutbox() {
+        when(outboxRepository.tryRelayLock(anyLong())).thenReturn(false);
+
+        relay.relay();
+
+        verify(outboxRepository, never()).findNextBatch(anyInt());
+    }
+
+    private static UserOutboxEvent event(long id, int userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setName("user" + userId);
+        user.setEmail("user" + userId + "@test.com");
+        UserOutboxEvent event = new UserOutboxEvent(UserEvent.Operation.CREATE, user);
+        ReflectionTestUtils.setField(event, "id", id);
+        ReflectionTestUtils.setField(event, "createdAt", Instant.now());
+        return event;
+    }
+}
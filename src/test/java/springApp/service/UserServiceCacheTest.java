@@ -0,0 +1,148 @@
+package springApp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import springApp.config.CacheConfig;
+import springApp.dto.UserDTO;
+import springApp.entity.User;
+import springApp.mapper.UserMapper;
+import springApp.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {CacheConfig.class, UserService.class}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UserServiceCacheTest {
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserMapper userMapper;
+
+    @MockitoBean
+    private UserOutboxService outboxService;
+
+    @MockitoBean
+    private UserEmailFilter emailFilter;
+
+    @MockitoBean
+    private UserTableVersion tableVersion;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void whenGetUserByIdTwice_ShouldQueryRepositoryOnce() {
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(dto(1, "cached")));
+
+        userService.getUserById(1L);
+        UserDTO second = userService.getUserById(1L);
+
+        assertEquals("cached", second.getName());
+        verify(userRepository, times(1)).findDtoById(1L);
+    }
+
+    @Test
+    void whenConcurrentMisses_ShouldShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findDtoById(4L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(dto(4, "popular"));
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> userService.getUserById(4L)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<UserDTO> result : results) {
+                assertEquals("popular", result.get(5, TimeUnit.SECONDS).getName());
+            }
+            verify(userRepository, times(1)).findDtoById(4L);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenConcurrentMissesForUnknownUser_ShouldAllGetNotFound() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findDtoById(5L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<UserDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(callers.submit(() -> userService.getUserById(5L)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<UserDTO> result : results) {
+                ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertEquals("User not found by id: 5", failure.getCause().getMessage());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenUserUpdated_ShouldWriteThroughToCache() {
+        User user = new User();
+        when(userRepository.updateReturning(2L, null, "updated", null, null)).thenReturn(Optional.of(user));
+        when(userMapper.mapToUserDTO(user)).thenReturn(dto(2, "updated"));
+
+        userService.updateUser(2L, dto(2, "updated"));
+        UserDTO cached = userService.getUserById(2L);
+
+        assertEquals("updated", cached.getName());
+        verify(userRepository, never()).findDtoById(2L);
+    }
+
+    @Test
+    void whenUserDeleted_ShouldEvictFromCache() {
+        User user = new User();
+        when(userRepository.findDtoById(3L)).thenReturn(Optional.of(dto(3, "deleted")));
+        userService.getUserById(3L);
+        when(userRepository.deleteByIdReturning(3L)).thenReturn(Optional.of(user));
+
+        userService.deleteUser(3L);
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(3L));
+    }
+
+    private static UserDTO dto(int id, String name) {
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+}
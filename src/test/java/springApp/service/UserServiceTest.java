@@ -5,7 +5,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import springApp.dto.UserDTO;
+import springApp.dto.UserPage;
+import springApp.dto.UserSearchCriteria;
 import springApp.entity.User;
 import springApp.mapper.UserMapper;
 import springApp.repository.UserRepository;
@@ -15,6 +20,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,53 +32,98 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserOutboxService outboxService;
+
+    @Mock
+    private UserEmailFilter emailFilter;
+
+    @Mock
+    private UserTableVersion tableVersion;
+
     @InjectMocks
     private UserService userService;
 
     @Test
     void shouldGetAllUsers() {
-        User user = new User();
-        UserDTO dto = new UserDTO();
-        dto.setId(1);
-
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        when(userMapper.mapToUserDTO(user)).thenReturn(dto);
+        when(userRepository.findAllDtos()).thenReturn(List.of(dtoWithId(1)));
 
         List<UserDTO> result = userService.getAllUsers();
 
         assertEquals(1, result.size());
         assertEquals(1, result.get(0).getId());
-        verify(userRepository).findAll();
-        verify(userMapper).mapToUserDTO(user);
+        verify(userRepository).findAllDtos();
+        verifyNoInteractions(userMapper);
     }
 
     @Test
-    void shouldGetUserById() {
-        User user = new User();
-        user.setId(1);
-        UserDTO dto = new UserDTO();
-        dto.setId(1);
+    void whenGetFirstPage_ShouldReturnNextCursorOnly() {
+        List<UserDTO> users = List.of(dtoWithId(1), dtoWithId(2), dtoWithId(3));
+        when(userRepository.findDtoPage(Limit.of(3))).thenReturn(users);
+
+        UserPage page = userService.getUsersPage(null, null, 2);
+
+        assertEquals(2, page.getUsers().size());
+        assertEquals(2, page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+    }
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userMapper.mapToUserDTO(user)).thenReturn(dto);
+    @Test
+    void whenGetPageBefore_ShouldReturnRowsInAscendingOrder() {
+        List<UserDTO> users = List.of(dtoWithId(4), dtoWithId(3), dtoWithId(2));
+        when(userRepository.findDtoPageBefore(5, Limit.of(3))).thenReturn(users);
+
+        UserPage page = userService.getUsersPage(null, 5, 2);
+
+        assertEquals(List.of(3, 4), page.getUsers().stream().map(UserDTO::getId).toList());
+        assertEquals(4, page.getNextCursor());
+        assertEquals(3, page.getPreviousCursor());
+    }
+
+    @Test
+    void whenSearchHasMoreRows_ShouldReturnNextCursor() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setName("Iv");
+        when(userRepository.search(criteria, 10, 3)).thenReturn(List.of(dtoWithId(11), dtoWithId(12), dtoWithId(13)));
+
+        UserPage page = userService.searchUsers(criteria, 10, 2);
+
+        assertEquals(List.of(11, 12), page.getUsers().stream().map(UserDTO::getId).toList());
+        assertEquals(12, page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+    }
+
+    @Test
+    void whenSearchAgeRangeInverted_ShouldRejectWithoutQuery() {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setMinAge(40);
+        criteria.setMaxAge(20);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsers(criteria, null, 50));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldGetUserById() {
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(dtoWithId(1)));
 
         UserDTO result = userService.getUserById(1L);
 
         assertNotNull(result);
         assertEquals(1, result.getId());
-        verify(userRepository).findById(1L);
-        verify(userMapper).mapToUserDTO(user);
+        verify(userRepository).findDtoById(1L);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void whenGetUserByIdUserNotFound_ShouldThrowException() {
-        when(userRepository.findById(-1L)).thenReturn(Optional.empty());
+        when(userRepository.findDtoById(-1L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> userService.getUserById(-1L));
 
         assertEquals("User not found by id: " + -1L, exception.getMessage());
-        verify(userRepository).findById(-1L);
+        verify(userRepository).findDtoById(-1L);
     }
 
     @Test
@@ -91,56 +142,111 @@ public class UserServiceTest {
         assertNotNull(result);
         assertEquals(1, result.getId());
         verify(userRepository).save(user);
+        verify(outboxService).recordCreate(user);
+        verify(tableVersion).changedAfterCommit();
+    }
+
+    @Test
+    void whenCreateUserWithTakenEmail_ShouldRejectWithoutSaving() {
+        UserDTO inputDTO = new UserDTO();
+        inputDTO.setEmail("taken@test.com");
+        when(emailFilter.exists(eq("taken@test.com"), any())).thenReturn(true);
+
+        assertThrows(DuplicateKeyException.class, () -> userService.createUser(inputDTO));
+        verify(userRepository, never()).save(any());
+        verify(outboxService, never()).recordCreate(any());
     }
 
     @Test
     void shouldUpdateExistingUser() {
-        User existUser = new User();
-        existUser.setId(1);
-        existUser.setName("OldName");
+        User updated = userWithId(1);
+        updated.setName("UpdateName");
         UserDTO updateDTO = new UserDTO();
-        updateDTO.setId(1);
         updateDTO.setName("UpdateName");
+        updateDTO.setVersion(3L);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existUser));
-        when(userRepository.save(any())).thenReturn(existUser);
-        when(userMapper.mapToUserDTO(any())).thenReturn(updateDTO);
+        when(userRepository.updateReturning(1L, 3L, "UpdateName", null, null)).thenReturn(Optional.of(updated));
+        when(userMapper.mapToUserDTO(updated)).thenReturn(updateDTO);
 
         UserDTO result = userService.updateUser(1L, updateDTO);
 
         assertNotNull(result);
         assertEquals("UpdateName", result.getName());
+        verify(outboxService).recordUpdate(updated);
+        verify(tableVersion).changedAfterCommit();
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
     void whenUpdateUserUserNotfound_ShouldThrowException() {
-        when(userRepository.findById(-1L)).thenReturn(Optional.empty());
+        UserDTO updateDTO = new UserDTO();
+        updateDTO.setName("UpdateName");
+        when(userRepository.updateReturning(-1L, null, "UpdateName", null, null)).thenReturn(Optional.empty());
+        when(userRepository.existsById(-1L)).thenReturn(false);
 
         RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> userService.updateUser(-1L, new UserDTO()));
+                () -> userService.updateUser(-1L, updateDTO));
 
         assertEquals("User not found by id: " + -1L, exception.getMessage());
-        verify(userRepository).findById(-1L);
-        verify(userMapper, never()).updateUserFromDTO(any(), any());
-        verify(userRepository, never()).save(any());
+        verify(outboxService, never()).recordUpdate(any());
         verify(userMapper, never()).mapToUserDTO(any());
     }
 
     @Test
-    void shouldDeleteExistingUser() {
+    void whenUpdateUserWithStaleVersion_ShouldThrowConflict() {
+        UserDTO updateDTO = new UserDTO();
+        updateDTO.setAge(30);
+        updateDTO.setVersion(1L);
+        when(userRepository.updateReturning(1L, 1L, null, null, 30)).thenReturn(Optional.empty());
         when(userRepository.existsById(1L)).thenReturn(true);
 
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> userService.updateUser(1L, updateDTO));
+        verify(outboxService, never()).recordUpdate(any());
+    }
+
+    @Test
+    void whenUpdateUserWithoutChanges_ShouldRejectWithoutQuery() {
+        UserDTO updateDTO = new UserDTO();
+        updateDTO.setVersion(1L);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.updateUser(1L, updateDTO));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldDeleteExistingUser() {
+        User deleted = userWithId(1);
+        when(userRepository.deleteByIdReturning(1L)).thenReturn(Optional.of(deleted));
+
         userService.deleteUser(1L);
 
-        verify(userRepository).existsById(1L);
-        verify(userRepository).deleteById(1L);
+        verify(userRepository).deleteByIdReturning(1L);
+        verify(outboxService).recordDelete(deleted);
+        verify(tableVersion).changedAfterCommit();
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void whenDeleteNotExistingUser_ShouldThrowException() {
-        when(userRepository.existsById(-1L)).thenReturn(false);
+        when(userRepository.deleteByIdReturning(-1L)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class,
                 () -> userService.deleteUser(-1L));
+        verify(outboxService, never()).recordDelete(any());
+    }
+
+    private static User userWithId(int id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static UserDTO dtoWithId(int id) {
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        return dto;
     }
 }
@@ -0,0 +1,89 @@
+package springApp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springApp.dto.UserDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UserTableVersionTest {
+
+    private final UserTableVersion tableVersion = new UserTableVersion(null, List.of(), Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenChanged_ShouldIssueNewEtag() {
+        String etag = tableVersion.current().etag();
+
+        tableVersion.changed();
+
+        assertNotEquals(etag, tableVersion.current().etag());
+        assertTrue(etag.startsWith("W/\"") && etag.endsWith("\""));
+    }
+
+    @Test
+    void shouldNotShareEtagsWithAnotherInstance() {
+        UserTableVersion other = new UserTableVersion(null, List.of(), Duration.ZERO);
+
+        assertNotEquals(tableVersion.current().etag(), other.current().etag());
+    }
+
+    @Test
+    void whenInTransaction_ShouldChangeOnlyAfterCommit() {
+        String etag = tableVersion.current().etag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        tableVersion.changedAfterCommit();
+        assertEquals(etag, tableVersion.current().etag());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(etag, tableVersion.current().etag());
+    }
+
+    @Test
+    void whenReplicasConfigured_ShouldChangeAgainOnceReplicasCaughtUp() {
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        UserTableVersion replicated = new UserTableVersion(scheduler,
+                List.of("jdbc:postgresql://replica/postgres"), Duration.ofMillis(1));
+        replicated.changed();
+        replicated.changed();
+        ArgumentCaptor<Runnable> settle = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(settle.capture(), any(Instant.class));
+        String etag = replicated.current().etag();
+
+        settle.getValue().run();
+
+        assertNotEquals(etag, replicated.current().etag());
+    }
+
+    @Test
+    void userEtagShouldFollowTheUserNotTheTable() {
+        UserDTO user = new UserDTO();
+        user.setId(1);
+        user.setName("test");
+        user.setVersion(1L);
+        String etag = tableVersion.etag(user);
+
+        tableVersion.changed();
+        assertEquals(etag, tableVersion.etag(user));
+
+        user.setVersion(2L);
+        assertNotEquals(etag, tableVersion.etag(user));
+    }
+}